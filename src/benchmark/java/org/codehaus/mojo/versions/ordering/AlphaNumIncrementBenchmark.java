@@ -0,0 +1,84 @@
+package org.codehaus.mojo.versions.ordering;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks {@link VersionComparators#alphaNumIncrement(String)} over every segment of the versions in the corpus,
+ * which includes numbers, qualifiers such as <code>rc1</code> and <code>Final</code>, and values that roll over.
+ *
+ * @since 2.4
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class AlphaNumIncrementBenchmark
+{
+    private String[] tokens;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        final List<String> result = new ArrayList<String>();
+        for ( String version : VersionCorpus.getVersionStrings() )
+        {
+            for ( String token : version.split( "[.-]" ) )
+            {
+                if ( token.length() > 0 )
+                {
+                    result.add( token );
+                }
+            }
+        }
+        result.add( "zz" );
+        result.add( "Z9" );
+        result.add( "999" );
+        tokens = result.toArray( new String[result.size()] );
+    }
+
+    @Benchmark
+    public void alphaNumIncrement( Blackhole blackhole )
+    {
+        for ( String token : tokens )
+        {
+            blackhole.consume( VersionComparators.alphaNumIncrement( token ) );
+        }
+    }
+}
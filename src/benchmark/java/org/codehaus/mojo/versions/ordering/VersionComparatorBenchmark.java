@@ -0,0 +1,135 @@
+package org.codehaus.mojo.versions.ordering;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the operations of the {@link VersionComparator}s over the whole version corpus, so each invocation
+ * covers the mix of release, qualifier and snapshot versions that real artifacts have.
+ *
+ * @since 2.4
+ */
+@State( Scope.Benchmark )
+@BenchmarkMode( Mode.AverageTime )
+@OutputTimeUnit( TimeUnit.MICROSECONDS )
+@Warmup( iterations = 5, time = 1 )
+@Measurement( iterations = 10, time = 1 )
+@Fork( 1 )
+public class VersionComparatorBenchmark
+{
+    /**
+     * The comparison method, as accepted by {@link VersionComparators#getVersionComparator(String)}.
+     */
+    @Param( { "maven", "mercury", "numeric" } )
+    public String comparisonMethod;
+
+    private VersionComparator comparator;
+
+    private ArtifactVersion[] versions;
+
+    /**
+     * The segment of each version to increment, chosen so that incrementing it is valid.
+     */
+    private int[] segments;
+
+    @Setup
+    public void setUp()
+        throws IOException
+    {
+        comparator = VersionComparators.getVersionComparator( comparisonMethod );
+        versions = VersionCorpus.getVersions();
+        segments = new int[versions.length];
+        for ( int i = 0; i < versions.length; i++ )
+        {
+            segments[i] = Math.max( 0, comparator.getSegmentCount( versions[i] ) - 1 ) % 3;
+        }
+    }
+
+    /**
+     * Compares each version with the next one.
+     */
+    @Benchmark
+    public void compare( Blackhole blackhole )
+    {
+        for ( int i = 1; i < versions.length; i++ )
+        {
+            blackhole.consume( comparator.compare( versions[i - 1], versions[i] ) );
+        }
+    }
+
+    /**
+     * Sorts the versions, which is how the comparators are mostly used.
+     */
+    @Benchmark
+    public ArtifactVersion[] sort()
+    {
+        final ArtifactVersion[] sorted = versions.clone();
+        Arrays.sort( sorted, comparator );
+        return sorted;
+    }
+
+    /**
+     * Counts the segments of each version.
+     */
+    @Benchmark
+    public void getSegmentCount( Blackhole blackhole )
+    {
+        for ( ArtifactVersion version : versions )
+        {
+            blackhole.consume( comparator.getSegmentCount( version ) );
+        }
+    }
+
+    /**
+     * Increments a segment of each version.
+     */
+    @Benchmark
+    public void incrementSegment( Blackhole blackhole )
+    {
+        for ( int i = 0; i < versions.length; i++ )
+        {
+            try
+            {
+                blackhole.consume( comparator.incrementSegment( versions[i], segments[i] ) );
+            }
+            catch ( InvalidSegmentException e )
+            {
+                blackhole.consume( e );
+            }
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.codehaus.mojo.versions.ordering;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The versions that the benchmarks work on, read from <code>versions.txt</code>.
+ *
+ * @since 2.4
+ */
+final class VersionCorpus
+{
+    private static final String RESOURCE = "versions.txt";
+
+    private VersionCorpus()
+    {
+        throw new IllegalAccessError( "Utility classes should never be instantiated" );
+    }
+
+    /**
+     * Returns the version strings of the corpus in a fixed, shuffled order, so that comparisons and sorts do not
+     * benefit from the versions already being (almost) in order.
+     *
+     * @return the version strings.
+     * @throws IOException if the corpus could not be read.
+     */
+    static List<String> getVersionStrings()
+        throws IOException
+    {
+        final List<String> versions = new ArrayList<String>();
+        final InputStream in = VersionCorpus.class.getResourceAsStream( RESOURCE );
+        if ( in == null )
+        {
+            throw new IOException( "Could not find " + RESOURCE );
+        }
+        try
+        {
+            final BufferedReader reader = new BufferedReader( new InputStreamReader( in, "UTF-8" ) );
+            String line;
+            while ( ( line = reader.readLine() ) != null )
+            {
+                line = line.trim();
+                if ( line.length() > 0 && !line.startsWith( "#" ) )
+                {
+                    versions.add( line );
+                }
+            }
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        Collections.shuffle( versions, new Random( 0x5eed ) );
+        return versions;
+    }
+
+    /**
+     * Returns the versions of the corpus in a fixed, shuffled order.
+     *
+     * @return the versions.
+     * @throws IOException if the corpus could not be read.
+     */
+    static ArtifactVersion[] getVersions()
+        throws IOException
+    {
+        final List<String> strings = getVersionStrings();
+        final ArtifactVersion[] versions = new ArtifactVersion[strings.size()];
+        for ( int i = 0; i < versions.length; i++ )
+        {
+            versions[i] = new DefaultArtifactVersion( strings.get( i ) );
+        }
+        return versions;
+    }
+}
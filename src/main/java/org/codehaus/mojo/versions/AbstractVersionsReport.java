@@ -185,6 +185,32 @@ public abstract class AbstractVersionsReport
     @Parameter (property = "allowSnapshots", defaultValue = "false")
     protected Boolean allowSnapshots;
 
+    /**
+     * How long (in seconds) the versions of an artifact, once retrieved from the remote repositories, are cached under
+     * the local repository and reused by later builds. <code>0</code> disables the cache.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.cacheTimeToLive", defaultValue = "0")
+    private long cacheTimeToLive;
+
+    /**
+     * Whether to ignore any versions cached under the local repository and retrieve them again.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.refreshCache", defaultValue = "false")
+    private boolean refreshCache;
+
+    /**
+     * The number of threads used to look up versions in parallel. The threads are shared by every goal executed in the
+     * session, so only the value configured for the first goal that looks up versions is used.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.lookupThreads", defaultValue = "5")
+    private int lookupThreads;
+
     /**
      * Our versions helper.
      */
@@ -213,10 +239,14 @@ public abstract class AbstractVersionsReport
         {
             try
             {
-                helper = new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
-                                                    remoteArtifactRepositories, remotePluginRepositories,
-                                                    localRepository, wagonManager, settings, serverId, rulesUri,
-                                                    getLog(), session, pathTranslator );
+                DefaultVersionsHelper defaultHelper =
+                    new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
+                                               remoteArtifactRepositories, remotePluginRepositories, localRepository,
+                                               wagonManager, settings, serverId, rulesUri, getLog(), session,
+                                               pathTranslator );
+                defaultHelper.setVersionsCache( cacheTimeToLive, refreshCache );
+                defaultHelper.setLookupThreads( lookupThreads );
+                helper = defaultHelper;
             }
             catch ( MojoExecutionException e )
             {
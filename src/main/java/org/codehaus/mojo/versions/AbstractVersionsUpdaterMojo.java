@@ -45,16 +45,20 @@ import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.api.PropertyVersions;
 import org.codehaus.mojo.versions.api.VersionsHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.AtomicFileWriter;
+import org.codehaus.mojo.versions.utils.LookupExecutor;
 import org.codehaus.plexus.util.FileUtils;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.WriterFactory;
-import org.codehaus.stax2.XMLInputFactory2;
 
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Writer;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -171,6 +175,33 @@ public abstract class AbstractVersionsUpdaterMojo
     @Parameter(property = "allowSnapshots", defaultValue = "false")
     protected Boolean allowSnapshots;
 
+    /**
+     * How long (in seconds) the versions of an artifact, once retrieved from the remote repositories, are cached under
+     * the local repository and reused by later builds. <code>0</code> disables the cache.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.cacheTimeToLive", defaultValue = "0")
+    private long cacheTimeToLive;
+
+    /**
+     * Whether to ignore any versions cached under the local repository and retrieve them again.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.refreshCache", defaultValue = "false")
+    private boolean refreshCache;
+
+    /**
+     * The number of threads used to look up versions (or, for goals that support it, to process poms) in parallel. The
+     * threads are shared by every goal executed in the session, so only the value configured for the first goal that
+     * uses them is used.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.lookupThreads", defaultValue = "5")
+    private int lookupThreads;
+
     /**
      * Our versions helper.
      */
@@ -197,14 +228,29 @@ public abstract class AbstractVersionsUpdaterMojo
     {
         if ( helper == null )
         {
-            helper = new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
-                                                remoteArtifactRepositories, remotePluginRepositories, localRepository,
-                                                wagonManager, settings, serverId, rulesUri, getLog(), session,
-                                                pathTranslator );
+            DefaultVersionsHelper defaultHelper =
+                new DefaultVersionsHelper( artifactFactory, artifactResolver, artifactMetadataSource,
+                                           remoteArtifactRepositories, remotePluginRepositories, localRepository,
+                                           wagonManager, settings, serverId, rulesUri, getLog(), session,
+                                           pathTranslator );
+            defaultHelper.setVersionsCache( cacheTimeToLive, refreshCache );
+            defaultHelper.setLookupThreads( lookupThreads );
+            helper = defaultHelper;
         }
         return helper;
     }
 
+    /**
+     * Returns the pool of threads, shared by the whole session, that work can be spread over.
+     *
+     * @return the pool of threads.
+     * @since 2.4
+     */
+    protected LookupExecutor getLookupExecutor()
+    {
+        return LookupExecutor.getInstance( session, lookupThreads );
+    }
+
     /**
      * Getter for property 'project'.
      *
@@ -309,27 +355,12 @@ public abstract class AbstractVersionsUpdaterMojo
             ModifiedPomXMLEventReader newPom = newModifiedPomXER( input );
 
             update( newPom );
+            // writes any outstanding changes back to input
+            newPom.close();
 
             if ( newPom.isModified() )
             {
-                if ( Boolean.FALSE.equals( generateBackupPoms ) )
-                {
-                    getLog().debug( "Skipping generation of backup file" );
-                }
-                else
-                {
-                    File backupFile = new File( outFile.getParentFile(), outFile.getName() + ".versionsBackup" );
-                    if ( !backupFile.exists() )
-                    {
-                        getLog().debug( "Backing up " + outFile + " to " + backupFile );
-                        FileUtils.copyFile( outFile, backupFile );
-                    }
-                    else
-                    {
-                        getLog().debug( "Leaving existing backup " + backupFile + " unmodified" );
-                    }
-                }
-                writeFile( outFile, input );
+                writeFile( outFile, input, !Boolean.FALSE.equals( generateBackupPoms ) );
             }
         }
         catch ( IOException e )
@@ -358,9 +389,7 @@ public abstract class AbstractVersionsUpdaterMojo
         ModifiedPomXMLEventReader newPom = null;
         try
         {
-            XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
-            inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
-            newPom = new ModifiedPomXMLEventReader( input, inputFactory );
+            newPom = new ModifiedPomXMLEventReader( input );
         }
         catch ( XMLStreamException e )
         {
@@ -370,7 +399,9 @@ public abstract class AbstractVersionsUpdaterMojo
     }
 
     /**
-     * Writes a StringBuilder into a file.
+     * Writes a StringBuilder into a file. The file is left untouched if it already holds exactly those bytes, otherwise
+     * the contents are written to a temporary file which then replaces it, so that the file is never left half
+     * written.
      *
      * @param outFile The file to read.
      * @param input The contents of the file.
@@ -379,7 +410,14 @@ public abstract class AbstractVersionsUpdaterMojo
     protected final void writeFile( File outFile, StringBuilder input )
         throws IOException
     {
-        Writer writer = WriterFactory.newXmlWriter( outFile );
+        writeFile( outFile, input, false );
+    }
+
+    private void writeFile( File outFile, StringBuilder input, boolean backup )
+        throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream( input.length() + 64 );
+        Writer writer = WriterFactory.newXmlWriter( bytes );
         try
         {
             IOUtil.copy( input.toString(), writer );
@@ -388,6 +426,59 @@ public abstract class AbstractVersionsUpdaterMojo
         {
             IOUtil.close( writer );
         }
+        byte[] output = bytes.toByteArray();
+
+        if ( hasContent( outFile, output ) )
+        {
+            getLog().debug( "Leaving " + outFile + " untouched as its content has not changed" );
+            return;
+        }
+
+        if ( !backup )
+        {
+            getLog().debug( "Skipping generation of backup file" );
+        }
+        else
+        {
+            File backupFile = new File( outFile.getParentFile(), outFile.getName() + ".versionsBackup" );
+            if ( !backupFile.exists() )
+            {
+                getLog().debug( "Backing up " + outFile + " to " + backupFile );
+                FileUtils.copyFile( outFile, backupFile );
+            }
+            else
+            {
+                getLog().debug( "Leaving existing backup " + backupFile + " unmodified" );
+            }
+        }
+
+        AtomicFileWriter.write( outFile, output, getLog() );
+    }
+
+    /**
+     * Checks whether a file holds exactly the specified bytes.
+     *
+     * @param file The file to check.
+     * @param content The expected contents.
+     * @return <code>true</code> if the file exists and holds exactly the specified bytes.
+     * @throws IOException when things go wrong.
+     */
+    private static boolean hasContent( File file, byte[] content )
+        throws IOException
+    {
+        if ( !file.isFile() || file.length() != content.length )
+        {
+            return false;
+        }
+        InputStream in = new FileInputStream( file );
+        try
+        {
+            return Arrays.equals( content, IOUtil.toByteArray( in ) );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
     }
 
     /**
@@ -53,6 +53,7 @@ import org.apache.maven.plugin.version.PluginVersionNotFoundException;
 import org.apache.maven.plugin.version.PluginVersionResolutionException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.DefaultProjectBuilderConfiguration;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuildingException;
@@ -61,9 +62,13 @@ import org.apache.maven.project.interpolation.ModelInterpolator;
 import org.apache.maven.settings.Settings;
 import org.codehaus.mojo.versions.api.ArtifactVersions;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.api.PomPrerequisites;
+import org.codehaus.mojo.versions.api.PomPrerequisites.ParentResolver;
+import org.codehaus.mojo.versions.api.VersionsHelper;
 import org.codehaus.mojo.versions.ordering.MavenVersionComparator;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 import org.codehaus.mojo.versions.utils.PluginComparator;
+import org.codehaus.mojo.versions.utils.PrerequisitesCache;
 import org.codehaus.plexus.component.repository.exception.ComponentLookupException;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.ReaderFactory;
@@ -71,6 +76,7 @@ import org.codehaus.plexus.util.StringUtils;
 
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.XMLEvent;
+import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.StringWriter;
@@ -93,6 +99,8 @@ import java.util.SortedSet;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Pattern;
 
 /**
@@ -129,6 +137,40 @@ public class DisplayPluginUpdatesMojo
      */
     private static final String FROM_SUPER_POM = "(from super-pom) ";
 
+    /**
+     * Matches the path of the elements that define plugins.
+     *
+     * @since 2.4
+     */
+    private static final Pattern PLUGIN_PATH = Pattern.compile( "/project(/profiles/profile)?"
+        + "((/build(/pluginManagement)?)|(/reporting))" + "/plugins/plugin" );
+
+    /**
+     * The plugins defined in the super-pom, keyed by the version of Maven it belongs to.
+     *
+     * @since 2.4
+     */
+    private static final Map<String, Map<String, String>> SUPER_POM_PLUGINS =
+        new HashMap<String, Map<String, String>>();
+
+    /**
+     * The pluginManagement section of the super-pom as built by Maven 2.x, keyed by the version of Maven it belongs
+     * to.
+     *
+     * @since 2.4
+     */
+    private static final Map<String, Map<String, String>> SUPER_POM_PLUGIN_MANAGEMENT =
+        new HashMap<String, Map<String, String>>();
+
+    /**
+     * The caches of the versions of Maven that plugins require, keyed by the base directory of the local repository
+     * they are kept in, so that a reactor reads and writes each cache once rather than once per module.
+     *
+     * @since 2.4
+     */
+    private static final Map<String, PrerequisitesCache> PREREQUISITES_CACHES =
+        new HashMap<String, PrerequisitesCache>();
+
     /**
      * @since 1.0-alpha-1
      */
@@ -156,6 +198,18 @@ public class DisplayPluginUpdatesMojo
     @Component
     private RuntimeInformation runtimeInformation;
 
+    /**
+     * Whether to search the versions of each plugin for the newest ones compatible with the project's minimum version
+     * of Maven, rather than looking at each version in turn, newest first. This resolves far fewer plugin poms, but
+     * relies on newer versions of a plugin never requiring an older version of Maven. The versions either side of
+     * each version found are checked, and a plugin whose versions turn out not to follow that is looked at one version
+     * at a time as usual.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.searchPluginVersions", defaultValue = "false")
+    private boolean searchPluginVersions;
+
     // --------------------- GETTER / SETTER METHODS ---------------------
 
     /**
@@ -185,89 +239,11 @@ public class DisplayPluginUpdatesMojo
                 {
                     result.put( getPluginCoords( plugin ), getPluginVersion( plugin ) );
                 }
-                URL superPom = getClass().getClassLoader().getResource( "org/apache/maven/model/pom-4.0.0.xml" );
-                if ( superPom != null )
+                for ( Map.Entry<String, String> plugin : getSuperPomPlugins().entrySet() )
                 {
-                    try
+                    if ( !result.containsKey( plugin.getKey() ) )
                     {
-                        Reader reader = ReaderFactory.newXmlReader( superPom );
-                        try
-                        {
-                            StringBuilder buf = new StringBuilder( IOUtil.toString( reader ) );
-                            ModifiedPomXMLEventReader pom = newModifiedPomXER( buf );
-
-                            Pattern pathRegex = Pattern.compile( "/project(/profiles/profile)?"
-                                + "((/build(/pluginManagement)?)|(/reporting))" + "/plugins/plugin" );
-                            Stack<StackState> pathStack = new Stack<StackState>();
-                            StackState curState = null;
-                            while ( pom.hasNext() )
-                            {
-                                XMLEvent event = pom.nextEvent();
-                                if ( event.isStartDocument() )
-                                {
-                                    curState = new StackState( "" );
-                                    pathStack.clear();
-                                }
-                                else if ( event.isStartElement() )
-                                {
-                                    String elementName = event.asStartElement().getName().getLocalPart();
-                                    if ( curState != null && pathRegex.matcher( curState.path ).matches() )
-                                    {
-                                        if ( "groupId".equals( elementName ) )
-                                        {
-                                            curState.groupId = pom.getElementText().trim();
-                                            continue;
-                                        }
-                                        else if ( "artifactId".equals( elementName ) )
-                                        {
-                                            curState.artifactId = pom.getElementText().trim();
-                                            continue;
-
-                                        }
-                                        else if ( "version".equals( elementName ) )
-                                        {
-                                            curState.version = pom.getElementText().trim();
-                                            continue;
-                                        }
-                                    }
-
-                                    pathStack.push( curState );
-                                    curState = new StackState( curState.path + "/" + elementName );
-                                }
-                                else if ( event.isEndElement() )
-                                {
-                                    if ( curState != null && pathRegex.matcher( curState.path ).matches() )
-                                    {
-                                        if ( curState.artifactId != null )
-                                        {
-                                            Plugin plugin = new Plugin();
-                                            plugin.setArtifactId( curState.artifactId );
-                                            plugin.setGroupId( curState.groupId == null
-                                                            ? PomHelper.APACHE_MAVEN_PLUGINS_GROUPID
-                                                            : curState.groupId );
-                                            plugin.setVersion( curState.version );
-                                            if ( !result.containsKey( getPluginCoords( plugin ) ) )
-                                            {
-                                                result.put( getPluginCoords( plugin ), getPluginVersion( plugin ) );
-                                            }
-                                        }
-                                    }
-                                    curState = pathStack.pop();
-                                }
-                            }
-                        }
-                        finally
-                        {
-                            IOUtil.close( reader );
-                        }
-                    }
-                    catch ( IOException e )
-                    {
-                        // ignore
-                    }
-                    catch ( XMLStreamException e )
-                    {
-                        // ignore
+                        result.put( plugin.getKey(), plugin.getValue() );
                     }
                 }
 
@@ -287,18 +263,141 @@ public class DisplayPluginUpdatesMojo
             }
         }
         getLog().debug( "Using Maven 2.x strategy to determine superpom defined plugins" );
-        Map<String, String> superPomPluginManagement = new HashMap();
-        try
+        String mavenVersion = runtimeInformation.getApplicationVersion().toString();
+        Map<String, String> superPomPluginManagement;
+        synchronized ( SUPER_POM_PLUGIN_MANAGEMENT )
         {
-            MavenProject superProject =
-                projectBuilder.buildStandaloneSuperProject( new DefaultProjectBuilderConfiguration() );
-            superPomPluginManagement.putAll( getPluginManagement( superProject.getOriginalModel() ) );
+            superPomPluginManagement = SUPER_POM_PLUGIN_MANAGEMENT.get( mavenVersion );
         }
-        catch ( ProjectBuildingException e )
+        if ( superPomPluginManagement == null )
+        {
+            try
+            {
+                MavenProject superProject =
+                    projectBuilder.buildStandaloneSuperProject( new DefaultProjectBuilderConfiguration() );
+                superPomPluginManagement = getPluginManagement( superProject.getOriginalModel() );
+            }
+            catch ( ProjectBuildingException e )
+            {
+                throw new MojoExecutionException( "Could not determine the super pom.xml", e );
+            }
+            synchronized ( SUPER_POM_PLUGIN_MANAGEMENT )
+            {
+                SUPER_POM_PLUGIN_MANAGEMENT.put( mavenVersion, superPomPluginManagement );
+            }
+        }
+        return new HashMap<String, String>( superPomPluginManagement );
+    }
+
+    /**
+     * Returns the plugins defined in the super-pom of the invoking version of Maven, which is only read the first time
+     * it is asked for.
+     *
+     * @return The plugin versions, which may be <code>null</code>, keyed by coordinates.
+     */
+    private Map<String, String> getSuperPomPlugins()
+    {
+        String mavenVersion = runtimeInformation.getApplicationVersion().toString();
+        synchronized ( SUPER_POM_PLUGINS )
+        {
+            Map<String, String> cached = SUPER_POM_PLUGINS.get( mavenVersion );
+            if ( cached != null )
+            {
+                return cached;
+            }
+        }
+        Map<String, String> result = new LinkedHashMap<String, String>();
+        URL superPom = getClass().getClassLoader().getResource( "org/apache/maven/model/pom-4.0.0.xml" );
+        if ( superPom != null )
+        {
+            try
+            {
+                Reader reader = ReaderFactory.newXmlReader( superPom );
+                try
+                {
+                    StringBuilder buf = new StringBuilder( IOUtil.toString( reader ) );
+                    ModifiedPomXMLEventReader pom = newModifiedPomXER( buf );
+
+                    Stack<StackState> pathStack = new Stack<StackState>();
+                    StackState curState = null;
+                    while ( pom.hasNext() )
+                    {
+                        XMLEvent event = pom.nextEvent();
+                        if ( event.isStartDocument() )
+                        {
+                            curState = new StackState( "" );
+                            pathStack.clear();
+                        }
+                        else if ( event.isStartElement() )
+                        {
+                            String elementName = event.asStartElement().getName().getLocalPart();
+                            if ( curState != null && PLUGIN_PATH.matcher( curState.path ).matches() )
+                            {
+                                if ( "groupId".equals( elementName ) )
+                                {
+                                    curState.groupId = pom.getElementText().trim();
+                                    continue;
+                                }
+                                else if ( "artifactId".equals( elementName ) )
+                                {
+                                    curState.artifactId = pom.getElementText().trim();
+                                    continue;
+
+                                }
+                                else if ( "version".equals( elementName ) )
+                                {
+                                    curState.version = pom.getElementText().trim();
+                                    continue;
+                                }
+                            }
+
+                            pathStack.push( curState );
+                            curState = new StackState( curState.path + "/" + elementName );
+                        }
+                        else if ( event.isEndElement() )
+                        {
+                            if ( curState != null && PLUGIN_PATH.matcher( curState.path ).matches() )
+                            {
+                                if ( curState.artifactId != null )
+                                {
+                                    Plugin plugin = new Plugin();
+                                    plugin.setArtifactId( curState.artifactId );
+                                    plugin.setGroupId( curState.groupId == null
+                                                    ? PomHelper.APACHE_MAVEN_PLUGINS_GROUPID
+                                                    : curState.groupId );
+                                    plugin.setVersion( curState.version );
+                                    if ( !result.containsKey( getPluginCoords( plugin ) ) )
+                                    {
+                                        result.put( getPluginCoords( plugin ), getPluginVersion( plugin ) );
+                                    }
+                                }
+                            }
+                            curState = pathStack.pop();
+                        }
+                    }
+                }
+                finally
+                {
+                    IOUtil.close( reader );
+                }
+            }
+            catch ( IOException e )
+            {
+                // ignore, and try again next time
+                return result;
+            }
+            catch ( XMLStreamException e )
+            {
+                // ignore, and try again next time
+                return result;
+            }
+        }
+        result = Collections.unmodifiableMap( result );
+        synchronized ( SUPER_POM_PLUGINS )
         {
-            throw new MojoExecutionException( "Could not determine the super pom.xml", e );
+            SUPER_POM_PLUGINS.put( mavenVersion, result );
         }
-        return superPomPluginManagement;
+        return result;
     }
 
     /**
@@ -473,13 +572,12 @@ public class DisplayPluginUpdatesMojo
         Map<ArtifactVersion, Map<String, String>> upgrades =
             new TreeMap<ArtifactVersion, Map<String, String>>( new MavenVersionComparator() );
         ArtifactVersion curMavenVersion = runtimeInformation.getApplicationVersion();
-        ArtifactVersion specMavenVersion = new DefaultArtifactVersion( getRequiredMavenVersion( getProject(), "2.0" ) );
+        ArtifactVersion specMavenVersion = new DefaultArtifactVersion( PomPrerequisites.getRequiredMavenVersion( getProject() ) );
         ArtifactVersion minMavenVersion = null;
         boolean superPomDrivingMinVersion = false;
-        Iterator<Plugin> i = plugins.iterator();
-        while ( i.hasNext() )
+        List<PluginVersionProbes> pluginProbes = new ArrayList<PluginVersionProbes>( plugins.size() );
+        for ( Plugin plugin : plugins )
         {
-            Object plugin = i.next();
             String groupId = getPluginGroupId( plugin );
             String artifactId = getPluginArtifactId( plugin );
             String version = getPluginVersion( plugin );
@@ -490,7 +588,6 @@ public class DisplayPluginUpdatesMojo
                 version = parentPluginManagement.get( coords );
             }
             getLog().debug( new StringBuilder().append( "Checking " ).append( coords ).append( " for updates newer than " ).append( version ).toString() );
-            String effectiveVersion = version;
 
             VersionRange versionRange;
             boolean unspecified = version == null;
@@ -505,103 +602,39 @@ public class DisplayPluginUpdatesMojo
             }
 
             Artifact artifact = artifactFactory.createPluginArtifact( groupId, artifactId, versionRange );
+            pluginProbes.add( new PluginVersionProbes( artifact, version, specMavenVersion, curMavenVersion ) );
+        }
 
-            ArtifactVersion artifactVersion = null;
-            try
+        // now we want to find the newest version of each plugin that is compatible with the invoking version of Maven
+        probePluginVersions( pluginProbes );
+
+        for ( PluginVersionProbes probes : pluginProbes )
+        {
+            Artifact artifact = probes.getArtifact();
+            String groupId = artifact.getGroupId();
+            String artifactId = artifact.getArtifactId();
+            String version = probes.getVersion();
+            String coords = ArtifactUtils.versionlessKey( groupId, artifactId );
+            String effectiveVersion = probes.getEffectiveVersion();
+            ArtifactVersion artifactVersion = probes.getArtifactVersion();
+
+            for ( Map.Entry<ArtifactVersion, String> upgrade : probes.getUpgrades().entrySet() )
             {
-                // now we want to find the newest version that is compatible with the invoking version of Maven
-                ArtifactVersions artifactVersions = getHelper().lookupArtifactVersions( artifact, true );
-                ArtifactVersion[] newerVersions =
-                    artifactVersions.getVersions( Boolean.TRUE.equals( this.allowSnapshots ) );
-                ArtifactVersion minRequires = null;
-                for ( int j = newerVersions.length - 1; j >= 0; j-- )
+                Map<String, String> upgradePlugins = upgrades.get( upgrade.getKey() );
+                if ( upgradePlugins == null )
                 {
-                    Artifact probe = artifactFactory.createDependencyArtifact( groupId, artifactId,
-                                                                               VersionRange.createFromVersion( newerVersions[j].toString() ),
-                                                                               "pom", null, "runtime" );
-                    try
-                    {
-                        getHelper().resolveArtifact( probe, true );
-                        MavenProject mavenProject =
-                            projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
-                        ArtifactVersion requires =
-                            new DefaultArtifactVersion( getRequiredMavenVersion( mavenProject, "2.0" ) );
-                        if ( specMavenVersion.compareTo( requires ) >= 0 && artifactVersion == null )
-                        {
-                            artifactVersion = newerVersions[j];
-                        }
-                        if ( effectiveVersion == null && curMavenVersion.compareTo( requires ) >= 0 )
-                        {
-                            // version was unspecified, current version of maven thinks it should use this
-                            effectiveVersion = newerVersions[j].toString();
-                        }
-                        if ( artifactVersion != null && effectiveVersion != null )
-                        {
-                            // no need to look at any older versions.
-                            break;
-                        }
-                        if ( minRequires == null || minRequires.compareTo( requires ) > 0 )
-                        {
-                            Map<String, String> upgradePlugins = upgrades.get( requires );
-                            if ( upgradePlugins == null )
-                            {
-                                upgrades.put( requires, upgradePlugins = new LinkedHashMap<String, String>() );
-                            }
-                            String upgradePluginKey = compactKey( groupId, artifactId );
-                            if ( !upgradePlugins.containsKey( upgradePluginKey ) )
-                            {
-                                upgradePlugins.put( upgradePluginKey, newerVersions[j].toString() );
-                            }
-                            minRequires = requires;
-                        }
-                    }
-                    catch ( ArtifactResolutionException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ArtifactNotFoundException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ProjectBuildingException e )
-                    {
-                        // ignore bad version
-                    }
+                    upgrades.put( upgrade.getKey(), upgradePlugins = new LinkedHashMap<String, String>() );
                 }
-                if ( effectiveVersion != null )
+                String upgradePluginKey = compactKey( groupId, artifactId );
+                if ( !upgradePlugins.containsKey( upgradePluginKey ) )
                 {
-                    VersionRange currentVersionRange = VersionRange.createFromVersion( effectiveVersion );
-                    Artifact probe = artifactFactory.createDependencyArtifact( groupId, artifactId, currentVersionRange,
-                                                                               "pom", null, "runtime" );
-                    try
-                    {
-                        getHelper().resolveArtifact( probe, true );
-                        MavenProject mavenProject =
-                            projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
-                        ArtifactVersion requires =
-                            new DefaultArtifactVersion( getRequiredMavenVersion( mavenProject, "2.0" ) );
-                        if ( minMavenVersion == null || minMavenVersion.compareTo( requires ) < 0 )
-                        {
-                            minMavenVersion = requires;
-                        }
-                    }
-                    catch ( ArtifactResolutionException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ArtifactNotFoundException e )
-                    {
-                        // ignore bad version
-                    }
-                    catch ( ProjectBuildingException e )
-                    {
-                        // ignore bad version
-                    }
+                    upgradePlugins.put( upgradePluginKey, upgrade.getValue() );
                 }
             }
-            catch ( ArtifactMetadataRetrievalException e )
+            ArtifactVersion requires = probes.getEffectiveRequires();
+            if ( requires != null && ( minMavenVersion == null || minMavenVersion.compareTo( requires ) < 0 ) )
             {
-                throw new MojoExecutionException( e.getMessage(), e );
+                minMavenVersion = requires;
             }
 
             String newVersion;
@@ -698,7 +731,7 @@ public class DisplayPluginUpdatesMojo
             }
         }
         logLine( false, "" );
-        boolean noMavenMinVersion = getRequiredMavenVersion( getProject(), null ) == null;
+        boolean noMavenMinVersion = !hasRequiredMavenVersion( getProject() );
         boolean noExplicitMavenMinVersion =
             getProject().getPrerequisites() == null || getProject().getPrerequisites().getMaven() == null;
         if ( noMavenMinVersion )
@@ -818,24 +851,275 @@ public class DisplayPluginUpdatesMojo
         return groupId + ":" + artifactId;
     }
 
-    private String getRequiredMavenVersion( MavenProject mavenProject, String defaultValue )
+    /**
+     * Checks whether a project or one of its parents gives the version of Maven it requires, by the same rule as
+     * {@link PomPrerequisites#getRequiredMavenVersion(MavenProject)}.
+     *
+     * @param mavenProject The project.
+     * @return <code>true</code> if the project, or one of its parents, has non-blank prerequisites.
+     */
+    private static boolean hasRequiredMavenVersion( MavenProject mavenProject )
     {
-        ArtifactVersion requiredMavenVersion = null;
-        while ( mavenProject != null )
+        for ( MavenProject p = mavenProject; p != null; p = p.getParent() )
         {
-            final Prerequisites prerequisites = mavenProject.getPrerequisites();
-            final String mavenVersion = prerequisites == null ? null : prerequisites.getMaven();
-            if ( mavenVersion != null )
+            final Prerequisites prerequisites = p.getPrerequisites();
+            if ( prerequisites != null && StringUtils.isNotEmpty( prerequisites.getMaven() ) )
             {
-                final ArtifactVersion v = new DefaultArtifactVersion( mavenVersion );
-                if ( requiredMavenVersion == null || requiredMavenVersion.compareTo( v ) < 0 )
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Looks up the versions of each plugin and probes them for the version of Maven they require, spreading the work
+     * over the lookup threads. The versions of all the plugins are probed newest first, a round at a time, and the
+     * probes of a plugin stop once its versions are settled, unless {@link #searchPluginVersions} asks for each
+     * plugin's versions to be searched instead.
+     *
+     * @param pluginProbes The plugins to probe.
+     * @throws MojoExecutionException when things go wrong.
+     */
+    private void probePluginVersions( List<PluginVersionProbes> pluginProbes )
+        throws MojoExecutionException
+    {
+        final VersionsHelper helper = getHelper();
+        final PrerequisitesCache cache = getPrerequisitesCache();
+        final PluginVersionProbes.Prober prober = new PluginVersionProbes.Prober()
+        {
+            public ArtifactVersion getRequiredMavenVersion( Artifact plugin, String version )
+            {
+                return getPluginRequiredMavenVersion( helper, cache, plugin, version );
+            }
+        };
+
+        List<Callable<Void>> lookups = new ArrayList<Callable<Void>>( pluginProbes.size() );
+        for ( final PluginVersionProbes probes : pluginProbes )
+        {
+            lookups.add( new Callable<Void>()
+            {
+                public Void call()
+                    throws ArtifactMetadataRetrievalException
                 {
-                    requiredMavenVersion = v;
+                    ArtifactVersions artifactVersions = helper.lookupArtifactVersions( probes.getArtifact(), true );
+                    probes.setNewerVersions( artifactVersions.getVersions( Boolean.TRUE.equals( allowSnapshots ) ) );
+                    return null;
                 }
+            } );
+        }
+        invokeAll( lookups );
+
+        List<Callable<Void>> versionProbes = new ArrayList<Callable<Void>>();
+        if ( searchPluginVersions )
+        {
+            for ( final PluginVersionProbes probes : pluginProbes )
+            {
+                versionProbes.add( new Callable<Void>()
+                {
+                    public Void call()
+                    {
+                        if ( !probes.search( prober ) )
+                        {
+                            getLog().debug( "Newer versions of " + probes.getArtifact().getDependencyConflictId()
+                                + " do not always require newer versions of Maven, probed them one at a time" );
+                        }
+                        return null;
+                    }
+                } );
+            }
+        }
+        else
+        {
+            int rounds = 0;
+            for ( PluginVersionProbes probes : pluginProbes )
+            {
+                rounds = Math.max( rounds, probes.getNewerVersions().length );
+            }
+            for ( int round = 0; round < rounds; round++ )
+            {
+                for ( final PluginVersionProbes probes : pluginProbes )
+                {
+                    final int index = probes.getNewerVersions().length - 1 - round;
+                    if ( index >= 0 )
+                    {
+                        versionProbes.add( new Callable<Void>()
+                        {
+                            public Void call()
+                            {
+                                probes.probe( index, prober );
+                                return null;
+                            }
+                        } );
+                    }
+                }
+            }
+        }
+        invokeAll( versionProbes );
+
+        List<Callable<Void>> effectiveProbes = new ArrayList<Callable<Void>>( pluginProbes.size() );
+        for ( final PluginVersionProbes probes : pluginProbes )
+        {
+            probes.settle();
+            if ( probes.getEffectiveVersion() != null )
+            {
+                effectiveProbes.add( new Callable<Void>()
+                {
+                    public Void call()
+                    {
+                        probes.setEffectiveRequires( prober.getRequiredMavenVersion( probes.getArtifact(),
+                                                                                     probes.getEffectiveVersion() ) );
+                        return null;
+                    }
+                } );
             }
-            mavenProject = mavenProject.getParent();
         }
-        return requiredMavenVersion == null ? defaultValue : requiredMavenVersion.toString();
+        invokeAll( effectiveProbes );
+
+        if ( !isLastProjectInReactor() )
+        {
+            // saved once the last module has added its plugins
+            return;
+        }
+        try
+        {
+            cache.save( getLog() );
+        }
+        catch ( IOException e )
+        {
+            getLog().warn( "Could not save the cache of plugin prerequisites: " + e.getMessage() );
+        }
+    }
+
+    /**
+     * Returns the cache of the versions of Maven that plugins require, kept in the local repository. The cache is
+     * read once and then shared by the modules of the reactor.
+     *
+     * @return The cache.
+     * @throws MojoExecutionException when things go wrong.
+     */
+    private PrerequisitesCache getPrerequisitesCache()
+        throws MojoExecutionException
+    {
+        final String basedir = localRepository.getBasedir();
+        synchronized ( PREREQUISITES_CACHES )
+        {
+            PrerequisitesCache cache = PREREQUISITES_CACHES.get( basedir );
+            if ( cache == null )
+            {
+                try
+                {
+                    cache = PrerequisitesCache.forLocalRepository( basedir );
+                }
+                catch ( IOException e )
+                {
+                    getLog().warn( "Could not read the cache of plugin prerequisites: " + e.getMessage() );
+                    try
+                    {
+                        cache = new PrerequisitesCache( null );
+                    }
+                    catch ( IOException e1 )
+                    {
+                        throw new MojoExecutionException( e1.getMessage(), e1 );
+                    }
+                }
+                PREREQUISITES_CACHES.put( basedir, cache );
+            }
+            return cache;
+        }
+    }
+
+    /**
+     * Checks whether the project is the last one in the reactor, once the plugins of every module are known.
+     *
+     * @return <code>true</code> if the project is the last one in the reactor, or there is no reactor.
+     */
+    private boolean isLastProjectInReactor()
+    {
+        return reactorProjects == null || reactorProjects.isEmpty()
+            || reactorProjects.get( reactorProjects.size() - 1 ) == getProject();
+    }
+
+    private void invokeAll( List<Callable<Void>> tasks )
+        throws MojoExecutionException
+    {
+        try
+        {
+            getLookupExecutor().invokeAll( tasks );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new MojoExecutionException( e.getCause().getMessage(), e.getCause() );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while looking up plugin versions", e );
+        }
+    }
+
+    /**
+     * Returns the version of Maven that a version of a plugin requires.
+     *
+     * @param helper The versions helper.
+     * @param cache The cache of the versions of Maven that plugins require.
+     * @param plugin The plugin.
+     * @param version The version of the plugin.
+     * @return The version of Maven required, or <code>null</code> if the version of the plugin could not be resolved.
+     */
+    private ArtifactVersion getPluginRequiredMavenVersion( final VersionsHelper helper, PrerequisitesCache cache,
+                                                           Artifact plugin, String version )
+    {
+        String cached = cache.get( plugin.getGroupId(), plugin.getArtifactId(), version );
+        if ( cached != null )
+        {
+            return new DefaultArtifactVersion( cached );
+        }
+        Artifact probe = artifactFactory.createDependencyArtifact( plugin.getGroupId(), plugin.getArtifactId(),
+                                                                   VersionRange.createFromVersion( version ), "pom",
+                                                                   null, "runtime" );
+        try
+        {
+            helper.resolveArtifact( probe, true );
+            String requires = PomPrerequisites.getRequiredMavenVersion( probe.getFile(), new ParentResolver()
+            {
+                public File resolveParent( String groupId, String artifactId, String version )
+                    throws ArtifactResolutionException, ArtifactNotFoundException
+                {
+                    Artifact parent = artifactFactory.createParentArtifact( groupId, artifactId, version );
+                    helper.resolveArtifact( parent, true );
+                    return parent.getFile();
+                }
+            } );
+            if ( requires == null )
+            {
+                MavenProject mavenProject =
+                    projectBuilder.buildFromRepository( probe, remotePluginRepositories, localRepository );
+                requires = PomPrerequisites.getRequiredMavenVersion( mavenProject );
+            }
+            cache.put( plugin.getGroupId(), plugin.getArtifactId(), version, requires );
+            return new DefaultArtifactVersion( requires );
+        }
+        catch ( ArtifactResolutionException e )
+        {
+            // ignore bad version
+        }
+        catch ( ArtifactNotFoundException e )
+        {
+            // ignore bad version
+        }
+        catch ( ProjectBuildingException e )
+        {
+            // ignore bad version
+        }
+        return null;
     }
 
     private static final class StackState
@@ -883,8 +1167,6 @@ public class DisplayPluginUpdatesMojo
         Set<String> result = new HashSet<String>();
         ModifiedPomXMLEventReader pom = newModifiedPomXER( pomContents );
 
-        Pattern pathRegex = Pattern.compile( "/project(/profiles/profile)?"
-            + "((/build(/pluginManagement)?)|(/reporting))" + "/plugins/plugin" );
         Stack<StackState> pathStack = new Stack<StackState>();
         StackState curState = null;
         while ( pom.hasNext() )
@@ -898,7 +1180,7 @@ public class DisplayPluginUpdatesMojo
             else if ( event.isStartElement() )
             {
                 String elementName = event.asStartElement().getName().getLocalPart();
-                if ( curState != null && pathRegex.matcher( curState.path ).matches() )
+                if ( curState != null && PLUGIN_PATH.matcher( curState.path ).matches() )
                 {
                     if ( "groupId".equals( elementName ) )
                     {
@@ -923,7 +1205,7 @@ public class DisplayPluginUpdatesMojo
             }
             else if ( event.isEndElement() )
             {
-                if ( curState != null && pathRegex.matcher( curState.path ).matches() )
+                if ( curState != null && PLUGIN_PATH.matcher( curState.path ).matches() )
                 {
                     if ( curState.artifactId != null && curState.version != null )
                     {
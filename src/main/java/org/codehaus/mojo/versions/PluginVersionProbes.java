@@ -0,0 +1,375 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The versions of a plugin and the versions of Maven they require, which are probed to find the newest version
+ * compatible with the project's minimum version of Maven and, if the plugin has no version, the newest version that
+ * the invoking version of Maven would use. The versions can either be probed one at a time, newest first, or searched
+ * for the versions where the required version of Maven changes. The probes may come from several threads.
+ *
+ * @since 2.4
+ */
+final class PluginVersionProbes
+{
+    /**
+     * Works out the version of Maven that a version of a plugin requires.
+     */
+    interface Prober
+    {
+        /**
+         * Returns the version of Maven that a version of a plugin requires.
+         *
+         * @param plugin The plugin.
+         * @param version The version of the plugin.
+         * @return The version of Maven required, or <code>null</code> if it is a bad version.
+         */
+        ArtifactVersion getRequiredMavenVersion( Artifact plugin, String version );
+    }
+
+    private final Artifact artifact;
+
+    private final String version;
+
+    private final ArtifactVersion specMavenVersion;
+
+    private final ArtifactVersion curMavenVersion;
+
+    private ArtifactVersion[] newerVersions = new ArtifactVersion[0];
+
+    /**
+     * The version of Maven that each of the newer versions requires, <code>null</code> if it is a bad version or has
+     * not been probed.
+     */
+    private ArtifactVersion[] requirements = new ArtifactVersion[0];
+
+    private boolean[] probed = new boolean[0];
+
+    private ArtifactVersion artifactVersion;
+
+    private String effectiveVersion;
+
+    private ArtifactVersion effectiveRequires;
+
+    /**
+     * The newest version of the plugin that requires each version of Maven, where it is older than all the newer
+     * versions that were looked at.
+     */
+    private final Map<ArtifactVersion, String> upgrades = new LinkedHashMap<ArtifactVersion, String>();
+
+    PluginVersionProbes( Artifact artifact, String version, ArtifactVersion specMavenVersion,
+                         ArtifactVersion curMavenVersion )
+    {
+        this.artifact = artifact;
+        this.version = version;
+        this.effectiveVersion = version;
+        this.specMavenVersion = specMavenVersion;
+        this.curMavenVersion = curMavenVersion;
+    }
+
+    public Artifact getArtifact()
+    {
+        return artifact;
+    }
+
+    public String getVersion()
+    {
+        return version;
+    }
+
+    public synchronized ArtifactVersion[] getNewerVersions()
+    {
+        return newerVersions;
+    }
+
+    public synchronized void setNewerVersions( ArtifactVersion[] newerVersions )
+    {
+        this.newerVersions = newerVersions;
+        this.requirements = new ArtifactVersion[newerVersions.length];
+        this.probed = new boolean[newerVersions.length];
+    }
+
+    /**
+     * Probes one of the newer versions, unless the probes of the versions newer than it already settle the versions.
+     *
+     * @param index The index of the version in the newer versions.
+     * @param prober Works out the version of Maven that a version requires.
+     */
+    public void probe( int index, Prober prober )
+    {
+        if ( isProbeNeeded( index ) )
+        {
+            getRequires( index, prober );
+        }
+    }
+
+    /**
+     * Searches the newer versions for those where the required version of Maven changes, assuming that newer versions
+     * of the plugin never require an older version of Maven, which needs far fewer probes than looking at one version
+     * at a time. The neighbours of each version found are checked and, if they show that the assumption does not
+     * hold, the versions are probed one at a time, newest first, instead.
+     *
+     * @param prober Works out the version of Maven that a version requires.
+     * @return <code>false</code> if the versions had to be probed one at a time.
+     */
+    public boolean search( Prober prober )
+    {
+        try
+        {
+            int newest = getNewerVersions().length - 1;
+            while ( newest >= 0 && getRequires( newest, prober ) == null )
+            {
+                newest--;
+            }
+            if ( newest < 0 )
+            {
+                return true;
+            }
+
+            // the versions are settled by the first version that is compatible with both versions of Maven
+            int settled = findNewest( newest, specMavenVersion, true, prober );
+            if ( settled >= 0 && getEffectiveVersion() == null )
+            {
+                settled = Math.min( settled, findNewest( newest, curMavenVersion, true, prober ) );
+            }
+
+            // the newest version requiring each version of Maven, as far as the versions are settled
+            for ( int index = newest; index > settled; )
+            {
+                index = findNewest( index - 1, getRequires( index, prober ), false, prober );
+            }
+            return true;
+        }
+        catch ( NotMonotonicException e )
+        {
+            for ( int index = getNewerVersions().length - 1; index >= 0; index-- )
+            {
+                probe( index, prober );
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Finds the newest version that requires a version of Maven older than a limit, skipping bad versions.
+     *
+     * @param newest The index of the newest version to consider.
+     * @param limit The limit.
+     * @param inclusive Whether versions that require exactly the limit count.
+     * @param prober Works out the version of Maven that a version requires.
+     * @return The index of the version, or <code>-1</code> if there is none.
+     * @throws NotMonotonicException if the versions either side of the one found show that newer versions do not
+     *             always require newer versions of Maven.
+     */
+    private int findNewest( int newest, ArtifactVersion limit, boolean inclusive, Prober prober )
+        throws NotMonotonicException
+    {
+        int found = -1;
+        int low = 0;
+        int high = newest;
+        while ( low <= high )
+        {
+            final int middle = ( low + high ) >>> 1;
+            int index = middle;
+            ArtifactVersion requires = null;
+            while ( index >= low && ( requires = getRequires( index, prober ) ) == null )
+            {
+                index--;
+            }
+            if ( requires == null )
+            {
+                // all bad versions
+                low = middle + 1;
+            }
+            else if ( isWithin( requires, limit, inclusive ) )
+            {
+                found = index;
+                low = middle + 1;
+            }
+            else
+            {
+                high = index - 1;
+            }
+        }
+
+        for ( int index = found + 1; index <= newest; index++ )
+        {
+            final ArtifactVersion requires = getRequires( index, prober );
+            if ( requires != null )
+            {
+                if ( isWithin( requires, limit, inclusive ) )
+                {
+                    throw new NotMonotonicException();
+                }
+                break;
+            }
+        }
+        for ( int index = found - 1; index >= 0; index-- )
+        {
+            final ArtifactVersion requires = getRequires( index, prober );
+            if ( requires != null )
+            {
+                if ( !isWithin( requires, limit, inclusive ) )
+                {
+                    throw new NotMonotonicException();
+                }
+                break;
+            }
+        }
+        return found;
+    }
+
+    private static boolean isWithin( ArtifactVersion requires, ArtifactVersion limit, boolean inclusive )
+    {
+        final int comparison = requires.compareTo( limit );
+        return inclusive ? comparison <= 0 : comparison < 0;
+    }
+
+    private ArtifactVersion getRequires( int index, Prober prober )
+    {
+        final String probeVersion;
+        synchronized ( this )
+        {
+            if ( probed[index] )
+            {
+                return requirements[index];
+            }
+            probeVersion = newerVersions[index].toString();
+        }
+        final ArtifactVersion requires = prober.getRequiredMavenVersion( artifact, probeVersion );
+        synchronized ( this )
+        {
+            requirements[index] = requires;
+            probed[index] = true;
+        }
+        return requires;
+    }
+
+    /**
+     * Checks whether a newer version still needs to be probed, which it does unless the probes of the versions newer
+     * than it already settle the versions.
+     *
+     * @param index The index of the version in the newer versions.
+     * @return <code>true</code> if the version needs to be probed.
+     */
+    public synchronized boolean isProbeNeeded( int index )
+    {
+        if ( probed[index] )
+        {
+            return false;
+        }
+        boolean haveArtifactVersion = false;
+        boolean haveEffectiveVersion = effectiveVersion != null;
+        for ( int j = newerVersions.length - 1; j > index; j-- )
+        {
+            if ( !probed[j] )
+            {
+                return true;
+            }
+            if ( requirements[j] != null )
+            {
+                haveArtifactVersion |= specMavenVersion.compareTo( requirements[j] ) >= 0;
+                haveEffectiveVersion |= curMavenVersion.compareTo( requirements[j] ) >= 0;
+                if ( haveArtifactVersion && haveEffectiveVersion )
+                {
+                    // no need to look at any older versions.
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Works out the versions from the probes, looking at one version at a time, newest first, and skipping the
+     * versions that were not probed.
+     */
+    public synchronized void settle()
+    {
+        ArtifactVersion minRequires = null;
+        for ( int j = newerVersions.length - 1; j >= 0; j-- )
+        {
+            ArtifactVersion requires = requirements[j];
+            if ( requires == null )
+            {
+                // ignore bad version
+                continue;
+            }
+            if ( specMavenVersion.compareTo( requires ) >= 0 && artifactVersion == null )
+            {
+                artifactVersion = newerVersions[j];
+            }
+            if ( effectiveVersion == null && curMavenVersion.compareTo( requires ) >= 0 )
+            {
+                // version was unspecified, current version of maven thinks it should use this
+                effectiveVersion = newerVersions[j].toString();
+            }
+            if ( artifactVersion != null && effectiveVersion != null )
+            {
+                // no need to look at any older versions.
+                break;
+            }
+            if ( minRequires == null || minRequires.compareTo( requires ) > 0 )
+            {
+                upgrades.put( requires, newerVersions[j].toString() );
+                minRequires = requires;
+            }
+        }
+    }
+
+    public synchronized ArtifactVersion getArtifactVersion()
+    {
+        return artifactVersion;
+    }
+
+    public synchronized String getEffectiveVersion()
+    {
+        return effectiveVersion;
+    }
+
+    public synchronized ArtifactVersion getEffectiveRequires()
+    {
+        return effectiveRequires;
+    }
+
+    public synchronized void setEffectiveRequires( ArtifactVersion effectiveRequires )
+    {
+        this.effectiveRequires = effectiveRequires;
+    }
+
+    public synchronized Map<ArtifactVersion, String> getUpgrades()
+    {
+        return upgrades;
+    }
+
+    /**
+     * Thrown when newer versions of a plugin turn out not to always require newer versions of Maven.
+     */
+    private static final class NotMonotonicException
+        extends Exception
+    {
+    }
+}
@@ -30,6 +30,9 @@ import java.util.Map;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 import javax.xml.stream.XMLStreamException;
@@ -39,16 +42,19 @@ import org.apache.maven.model.Model;
 import org.apache.maven.model.Parent;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.api.ReactorIndex;
 import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.change.VersionChanger;
 import org.codehaus.mojo.versions.change.VersionChangerFactory;
 import org.codehaus.mojo.versions.ordering.ReactorDepthComparator;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.BufferedLog;
 import org.codehaus.mojo.versions.utils.ContextualLog;
 import org.codehaus.mojo.versions.utils.DelegatingContextualLog;
 import org.codehaus.mojo.versions.utils.RegexUtils;
@@ -166,12 +172,27 @@ public class SetMojo
     @Parameter(property = "nextSnapshot", defaultValue = "false")
     private boolean nextSnapshot;
 
+    /**
+     * Whether to process the poms in parallel, over the threads set by <code>versions.lookupThreads</code>. The messages
+     * about each pom are still logged together, in the order the poms would be processed one at a time, and no more
+     * poms are started once processing one of them fails.
+     *
+     * @since 2.4
+     */
+    @Parameter(property = "versions.processInParallel", defaultValue = "false")
+    private boolean processInParallel;
+
     /**
      * The changes to module coordinates. Guarded by this.
      */
     private final transient List<VersionChange> sourceChanges = new ArrayList<VersionChange>();
 
-    private synchronized void addChange( String groupId, String artifactId, String oldVersion, String newVersion )
+    /**
+     * The log of the pom being processed by the current thread, when processing in parallel.
+     */
+    private final transient ThreadLocal<Log> pomLog = new ThreadLocal<Log>();
+
+    synchronized void addChange( String groupId, String artifactId, String oldVersion, String newVersion )
     {
         if ( !newVersion.equals( oldVersion ) )
         {
@@ -179,6 +200,23 @@ public class SetMojo
         }
     }
 
+    private synchronized List<VersionChange> getSourceChanges()
+    {
+        return new ArrayList<VersionChange>( sourceChanges );
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * While a pom is being processed in parallel this is the buffered log of that pom.
+     * </p>
+     */
+    public Log getLog()
+    {
+        Log log = pomLog.get();
+        return log != null ? log : super.getLog();
+    }
+
     /**
      * Called when this mojo is executed.
      *
@@ -272,10 +310,11 @@ public class SetMojo
                 PomHelper.getLocalRoot( projectBuilder, getProject(), localRepository, null, getLog() );
 
             getLog().info( "Local aggregation root: " + project.getBasedir() );
-            Map<String, Model> reactorModels = PomHelper.getReactorModels( project, getLog() );
+            Map<String, Model> reactorModels = PomHelper.getReactorModels( project, getLog(), getLookupExecutor() );
             final SortedMap<String, Model> reactor =
                 new TreeMap<String, Model>( new ReactorDepthComparator( reactorModels ) );
             reactor.putAll( reactorModels );
+            final ReactorIndex reactorIndex = new ReactorIndex( reactor );
 
             // set of files to update
             final Set<File> files = new LinkedHashSet<File>();
@@ -299,7 +338,7 @@ public class SetMojo
                 {
                     found = true;
                     // if the change is not one we have swept up already
-                    applyChange( project, reactor, files, mGroupId, m.getArtifactId(),
+                    applyChange( project, reactorIndex, files, mGroupId, m.getArtifactId(),
                                  StringUtils.isBlank( oldVersion ) || "*".equals( oldVersion ) ? "" : m.getVersion() );
                 }
             }
@@ -307,19 +346,111 @@ public class SetMojo
             		&& RegexUtils.getWildcardScore(artifactId) == 0
             		&& RegexUtils.getWildcardScore(oldVersion) == 0 )
             {
-                applyChange( project, reactor, files, groupId, artifactId, oldVersion );
+                applyChange( project, reactorIndex, files, groupId, artifactId, oldVersion );
             }
 
             // now process all the updates
+            processFiles( files );
+
+        }
+        catch ( IOException e )
+        {
+            throw new MojoExecutionException( e.getMessage(), e );
+        }
+    }
+
+    /**
+     * Processes the files, in parallel if <code>processInParallel</code> is set.
+     *
+     * @param files The files to process, in reactor order.
+     * @throws MojoExecutionException If things go wrong.
+     * @throws MojoFailureException If things go wrong.
+     */
+    void processFiles( Set<File> files )
+        throws MojoExecutionException, MojoFailureException
+    {
+        if ( processInParallel && files.size() > 1 )
+        {
+            processInParallel( files );
+        }
+        else
+        {
             for ( File file : files )
             {
                 process( file );
             }
+        }
+    }
 
+    /**
+     * Processes the files in parallel. Each file's messages are buffered and then logged in the order of the files.
+     * Once a file fails no more files are started, and every failure is reported with the first one thrown.
+     *
+     * @param files The files to process.
+     * @throws MojoExecutionException If things go wrong.
+     * @throws MojoFailureException If things go wrong.
+     */
+    private void processInParallel( Set<File> files )
+        throws MojoExecutionException, MojoFailureException
+    {
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<ProcessTask> tasks = new ArrayList<ProcessTask>( files.size() );
+        for ( File file : files )
+        {
+            tasks.add( new ProcessTask( file, failed ) );
         }
-        catch ( IOException e )
+        try
         {
-            throw new MojoExecutionException( e.getMessage(), e );
+            getLookupExecutor().invokeAll( tasks );
+        }
+        catch ( ExecutionException e )
+        {
+            // the tasks catch all their failures themselves
+            throw new MojoExecutionException( e.getMessage(), e.getCause() );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new MojoExecutionException( "Interrupted while processing the poms", e );
+        }
+
+        Exception firstFailure = null;
+        int skipped = 0;
+        for ( ProcessTask task : tasks )
+        {
+            task.log.flushTo( getLog() );
+            if ( task.failure != null )
+            {
+                if ( firstFailure == null )
+                {
+                    firstFailure = task.failure;
+                }
+                else
+                {
+                    getLog().error( "Processing " + task.file + " also failed: " + task.failure.getMessage(),
+                                    task.failure );
+                }
+            }
+            else if ( !task.done )
+            {
+                skipped++;
+            }
+        }
+        if ( skipped > 0 )
+        {
+            getLog().warn( "Skipped " + skipped + " pom(s) after an earlier pom failed" );
+        }
+        if ( firstFailure instanceof MojoFailureException )
+        {
+            throw (MojoFailureException) firstFailure;
+        }
+        if ( firstFailure instanceof MojoExecutionException )
+        {
+            throw (MojoExecutionException) firstFailure;
+        }
+        if ( firstFailure != null )
+        {
+            throw (RuntimeException) firstFailure;
         }
     }
 
@@ -328,7 +459,7 @@ public class SetMojo
         return StringUtils.isBlank( value ) ? defaultValue : value;
     }
 
-    private void applyChange( MavenProject project, SortedMap<String, Model> reactor, Set<File> files, String groupId,
+    private void applyChange( MavenProject project, ReactorIndex reactor, Set<File> files, String groupId,
                               String artifactId, String oldVersion )
     {
 
@@ -337,12 +468,12 @@ public class SetMojo
         addChange( groupId, artifactId, oldVersion, newVersion );
         // now fake out the triggering change
 
-        final Map.Entry<String, Model> current = PomHelper.getModelEntry( reactor, groupId, artifactId );
+        final Map.Entry<String, Model> current = reactor.getModelEntry( groupId, artifactId );
         current.getValue().setVersion( newVersion );
 
         addFile( files, project, current.getKey() );
 
-        for ( Map.Entry<String, Model> sourceEntry : reactor.entrySet() )
+        for ( Map.Entry<String, Model> sourceEntry : reactor.getModels().entrySet() )
         {
             final String sourcePath = sourceEntry.getKey();
             final Model sourceModel = sourceEntry.getValue();
@@ -374,8 +505,8 @@ public class SetMojo
             getLog().debug( "Looking for modules which use "
                 + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + " as their parent" );
 
-            for ( Map.Entry<String, Model> stringModelEntry : PomHelper.getChildModels( reactor, sourceGroupId,
-                                                                                        sourceArtifactId ).entrySet() )
+            for ( Map.Entry<String, Model> stringModelEntry : reactor.getChildModels( sourceGroupId,
+                                                                                      sourceArtifactId ).entrySet() )
             {
                 final Map.Entry target = (Map.Entry) stringModelEntry;
                 final String targetPath = (String) target.getKey();
@@ -454,33 +585,83 @@ public class SetMojo
      * @throws org.apache.maven.plugin.MojoFailureException when things go wrong.
      * @throws javax.xml.stream.XMLStreamException when things go wrong.
      */
-    protected synchronized void update( ModifiedPomXMLEventReader pom )
+    protected void update( ModifiedPomXMLEventReader pom )
         throws MojoExecutionException, MojoFailureException, XMLStreamException
     {
         ContextualLog log = new DelegatingContextualLog( getLog() );
-        try
-        {
-            Model model = PomHelper.getRawModel( pom );
-            log.setContext( "Processing " + PomHelper.getGroupId( model ) + ":" + PomHelper.getArtifactId( model ) );
+        Model model = PomHelper.getRawModelCoordinates( pom );
+        log.setContext( "Processing " + PomHelper.getGroupId( model ) + ":" + PomHelper.getArtifactId( model ) );
 
-            VersionChangerFactory versionChangerFactory = new VersionChangerFactory();
-            versionChangerFactory.setPom( pom );
-            versionChangerFactory.setLog( log );
-            versionChangerFactory.setModel( model );
+        VersionChangerFactory versionChangerFactory = new VersionChangerFactory();
+        versionChangerFactory.setPom( pom );
+        versionChangerFactory.setLog( log );
+        versionChangerFactory.setModel( model );
 
-            VersionChanger changer = versionChangerFactory.newVersionChanger( processParent, processProject,
-                                                                              processDependencies, processPlugins );
+        VersionChanger changer = versionChangerFactory.newVersionChanger( processParent, processProject,
+                                                                          processDependencies, processPlugins );
 
-            for ( VersionChange versionChange : sourceChanges )
+        changer.applyAll( getSourceChanges() );
+        log.clearContext();
+    }
+
+    /**
+     * Processes a file with its own buffered log, unless another file has already failed.
+     */
+    private final class ProcessTask
+        implements Callable<Void>
+    {
+        private final File file;
+
+        private final AtomicBoolean failed;
+
+        private final BufferedLog log = new BufferedLog( SetMojo.super.getLog() );
+
+        private volatile boolean done;
+
+        private volatile Exception failure;
+
+        private ProcessTask( File file, AtomicBoolean failed )
+        {
+            this.file = file;
+            this.failed = failed;
+        }
+
+        public Void call()
+        {
+            if ( failed.get() )
+            {
+                return null;
+            }
+            pomLog.set( log );
+            try
+            {
+                process( file );
+                done = true;
+            }
+            catch ( MojoExecutionException e )
+            {
+                fail( e );
+            }
+            catch ( MojoFailureException e )
+            {
+                fail( e );
+            }
+            catch ( RuntimeException e )
             {
-                changer.apply( versionChange );
+                fail( e );
             }
+            finally
+            {
+                pomLog.remove();
+            }
+            return null;
         }
-        catch ( IOException e )
+
+        private void fail( Exception e )
         {
-            throw new MojoExecutionException( e.getMessage(), e );
+            failure = e;
+            failed.set( true );
         }
-        log.clearContext();
     }
 
 }
@@ -26,6 +26,7 @@ import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.api.ReactorIndex;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
@@ -79,16 +80,15 @@ public class UpdateChildModulesMojo
 
         try
         {
-            final Map reactor = PomHelper.getReactorModels( getProject(), getLog() );
+            final Map reactor = PomHelper.getReactorModels( getProject(), getLog(), getLookupExecutor() );
+            final ReactorIndex reactorIndex = new ReactorIndex( reactor );
             List order = new ArrayList( reactor.keySet() );
             Collections.sort( order, new Comparator()
             {
                 public int compare( Object o1, Object o2 )
                 {
-                    Model m1 = (Model) reactor.get( o1 );
-                    Model m2 = (Model) reactor.get( o2 );
-                    int d1 = PomHelper.getReactorParentCount( reactor, m1 );
-                    int d2 = PomHelper.getReactorParentCount( reactor, m2 );
+                    int d1 = reactorIndex.getReactorParentCount( (String) o1 );
+                    int d2 = reactorIndex.getReactorParentCount( (String) o2 );
                     if ( d1 < d2 )
                     {
                         return -1;
@@ -135,7 +135,7 @@ public class UpdateChildModulesMojo
                         + ArtifactUtils.versionlessKey( sourceGroupId, sourceArtifactId ) + " as their parent" );
 
                     Iterator j =
-                        PomHelper.getChildModels( reactor, sourceGroupId, sourceArtifactId ).entrySet().iterator();
+                        reactorIndex.getChildModels( sourceGroupId, sourceArtifactId ).entrySet().iterator();
 
                     while ( j.hasNext() )
                     {
@@ -25,10 +25,8 @@ import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.codehaus.mojo.versions.ordering.VersionComparator;
 
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.Set;
-import java.util.TreeSet;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Base class for {@link org.codehaus.mojo.versions.api.VersionDetails}.
@@ -121,6 +119,98 @@ public abstract class AbstractVersionDetails
 
     public abstract ArtifactVersion[] getVersions( boolean includeSnapshots );
 
+    /**
+     * Returns the versions sorted in ascending order according to {@link #getVersionComparator()}, which is what the
+     * range queries binary search. Subclasses that keep their versions in a sorted array can return it directly, as
+     * callers must not modify the result.
+     *
+     * @param includeSnapshots <code>true</code> if snapshots are to be included.
+     * @return the sorted versions.
+     * @since 2.4
+     */
+    protected ArtifactVersion[] getSortedVersions( boolean includeSnapshots )
+    {
+        return getVersions( includeSnapshots );
+    }
+
+    /**
+     * Returns the index of the first of the sorted versions that is not excluded by the lower bound.
+     *
+     * @param versions the versions, sorted by the comparator.
+     * @param versionComparator the comparator.
+     * @param lowerBound the lower bound or <code>null</code> if there is none.
+     * @param includeLower whether a version equal to the lower bound is included.
+     * @return the index of the first version above the lower bound.
+     */
+    private static int getLowerIndex( ArtifactVersion[] versions, VersionComparator versionComparator,
+                                      ArtifactVersion lowerBound, boolean includeLower )
+    {
+        if ( lowerBound == null )
+        {
+            return 0;
+        }
+        int low = 0;
+        int high = versions.length;
+        while ( low < high )
+        {
+            int mid = ( low + high ) >>> 1;
+            int lower = versionComparator.compare( lowerBound, versions[mid] );
+            if ( lower > 0 || ( !includeLower && lower == 0 ) )
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns the index after the last of the sorted versions that is not excluded by the upper bound.
+     *
+     * @param versions the versions, sorted by the comparator.
+     * @param versionComparator the comparator.
+     * @param upperBound the upper bound or <code>null</code> if there is none.
+     * @param includeUpper whether a version equal to the upper bound is included.
+     * @return the index after the last version below the upper bound.
+     */
+    private static int getUpperIndex( ArtifactVersion[] versions, VersionComparator versionComparator,
+                                      ArtifactVersion upperBound, boolean includeUpper )
+    {
+        if ( upperBound == null )
+        {
+            return versions.length;
+        }
+        int low = 0;
+        int high = versions.length;
+        while ( low < high )
+        {
+            int mid = ( low + high ) >>> 1;
+            int upper = versionComparator.compare( upperBound, versions[mid] );
+            if ( upper > 0 || ( includeUpper && upper == 0 ) )
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isIncluded( ArtifactVersion candidate, VersionRange versionRange,
+                                       boolean includeSnapshots )
+    {
+        if ( versionRange != null && !ArtifactVersions.isVersionInRange( candidate, versionRange ) )
+        {
+            return false;
+        }
+        return includeSnapshots || !ArtifactUtils.isSnapshot( candidate.toString() );
+    }
+
     public final ArtifactVersion[] getVersions( VersionRange versionRange, boolean includeSnapshots )
     {
         return getVersions( versionRange, null, null, includeSnapshots, true, true );
@@ -181,40 +271,17 @@ public abstract class AbstractVersionDetails
                                                    ArtifactVersion upperBound, boolean includeSnapshots,
                                                    boolean includeLower, boolean includeUpper )
     {
-        ArtifactVersion latest = null;
         final VersionComparator versionComparator = getVersionComparator();
-        Iterator i = Arrays.asList( getVersions( includeSnapshots ) ).iterator();
-        while ( i.hasNext() )
+        final ArtifactVersion[] versions = getSortedVersions( includeSnapshots );
+        final int lowerIndex = getLowerIndex( versions, versionComparator, lowerBound, includeLower );
+        for ( int i = getUpperIndex( versions, versionComparator, upperBound, includeUpper ) - 1; i >= lowerIndex; i-- )
         {
-            ArtifactVersion candidate = (ArtifactVersion) i.next();
-            if ( versionRange != null && !ArtifactVersions.isVersionInRange( candidate, versionRange ) )
-            {
-                continue;
-            }
-            int lower = lowerBound == null ? -1 : versionComparator.compare( lowerBound, candidate );
-            int upper = upperBound == null ? +1 : versionComparator.compare( upperBound, candidate );
-            if ( lower > 0 || upper < 0 )
-            {
-                continue;
-            }
-            if ( ( !includeLower && lower == 0 ) || ( !includeUpper && upper == 0 ) )
+            if ( isIncluded( versions[i], versionRange, includeSnapshots ) )
             {
-                continue;
-            }
-            if ( !includeSnapshots && ArtifactUtils.isSnapshot( candidate.toString() ) )
-            {
-                continue;
-            }
-            if ( latest == null )
-            {
-                latest = candidate;
-            }
-            else if ( versionComparator.compare( latest, candidate ) < 0 )
-            {
-                latest = candidate;
+                return versions[i];
             }
         }
-        return latest;
+        return null;
     }
 
     public final ArtifactVersion getNewestVersion( ArtifactVersion lowerBound, ArtifactVersion upperBound,
@@ -231,10 +298,8 @@ public abstract class AbstractVersionDetails
 
     public final boolean containsVersion( String version )
     {
-        Iterator i = Arrays.asList( getVersions( true ) ).iterator();
-        while ( i.hasNext() )
+        for ( ArtifactVersion candidate : getSortedVersions( true ) )
         {
-            ArtifactVersion candidate = (ArtifactVersion) i.next();
             if ( version.equals( candidate.toString() ) )
             {
                 return true;
@@ -280,40 +345,17 @@ public abstract class AbstractVersionDetails
                                                    ArtifactVersion upperBound, boolean includeSnapshots,
                                                    boolean includeLower, boolean includeUpper )
     {
-        ArtifactVersion oldest = null;
         final VersionComparator versionComparator = getVersionComparator();
-        Iterator i = Arrays.asList( getVersions( includeSnapshots ) ).iterator();
-        while ( i.hasNext() )
+        final ArtifactVersion[] versions = getSortedVersions( includeSnapshots );
+        final int upperIndex = getUpperIndex( versions, versionComparator, upperBound, includeUpper );
+        for ( int i = getLowerIndex( versions, versionComparator, lowerBound, includeLower ); i < upperIndex; i++ )
         {
-            ArtifactVersion candidate = (ArtifactVersion) i.next();
-            if ( versionRange != null && !ArtifactVersions.isVersionInRange( candidate, versionRange ) )
+            if ( isIncluded( versions[i], versionRange, includeSnapshots ) )
             {
-                continue;
-            }
-            int lower = lowerBound == null ? -1 : versionComparator.compare( lowerBound, candidate );
-            int upper = upperBound == null ? +1 : versionComparator.compare( upperBound, candidate );
-            if ( lower > 0 || upper < 0 )
-            {
-                continue;
-            }
-            if ( ( !includeLower && lower == 0 ) || ( !includeUpper && upper == 0 ) )
-            {
-                continue;
-            }
-            if ( !includeSnapshots && ArtifactUtils.isSnapshot( candidate.toString() ) )
-            {
-                continue;
-            }
-            if ( oldest == null )
-            {
-                oldest = candidate;
-            }
-            else if ( versionComparator.compare( oldest, candidate ) > 0 )
-            {
-                oldest = candidate;
+                return versions[i];
             }
         }
-        return oldest;
+        return null;
     }
 
     public final ArtifactVersion[] getVersions( ArtifactVersion lowerBound, ArtifactVersion upperBound,
@@ -326,30 +368,18 @@ public abstract class AbstractVersionDetails
                                                 ArtifactVersion upperBound, boolean includeSnapshots,
                                                 boolean includeLower, boolean includeUpper )
     {
-        Set<ArtifactVersion> result;
         final VersionComparator versionComparator = getVersionComparator();
-        result = new TreeSet<ArtifactVersion>( versionComparator );
-        for ( ArtifactVersion candidate : Arrays.asList( getVersions( includeSnapshots ) ) )
+        final ArtifactVersion[] versions = getSortedVersions( includeSnapshots );
+        final int lowerIndex = getLowerIndex( versions, versionComparator, lowerBound, includeLower );
+        final int upperIndex = Math.max( lowerIndex, getUpperIndex( versions, versionComparator, upperBound,
+                                                                    includeUpper ) );
+        final List<ArtifactVersion> result = new ArrayList<ArtifactVersion>( upperIndex - lowerIndex );
+        for ( int i = lowerIndex; i < upperIndex; i++ )
         {
-            if ( versionRange != null && !ArtifactVersions.isVersionInRange( candidate, versionRange ) )
-            {
-                continue;
-            }
-            int lower = lowerBound == null ? -1 : versionComparator.compare( lowerBound, candidate );
-            int upper = upperBound == null ? +1 : versionComparator.compare( upperBound, candidate );
-            if ( lower > 0 || upper < 0 )
-            {
-                continue;
-            }
-            if ( ( !includeLower && lower == 0 ) || ( !includeUpper && upper == 0 ) )
-            {
-                continue;
-            }
-            if ( !includeSnapshots && ArtifactUtils.isSnapshot( candidate.toString() ) )
+            if ( isIncluded( versions[i], versionRange, includeSnapshots ) )
             {
-                continue;
+                result.add( versions[i] );
             }
-            result.add( candidate );
         }
         return result.toArray( new ArtifactVersion[result.size()] );
     }
@@ -26,8 +26,9 @@ import org.apache.maven.artifact.versioning.Restriction;
 import org.apache.maven.artifact.versioning.VersionRange;
 import org.codehaus.mojo.versions.ordering.VersionComparator;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -48,11 +49,18 @@ public class ArtifactVersions
     private final Artifact artifact;
 
     /**
-     * The available versions.
+     * The available versions, sorted by {@link #versionComparator}.
      *
      * @since 1.0-alpha-3
      */
-    private final SortedSet<ArtifactVersion> versions;
+    private final ArtifactVersion[] versions;
+
+    /**
+     * The available versions that are not snapshots, sorted by {@link #versionComparator}.
+     *
+     * @since 2.4
+     */
+    private final ArtifactVersion[] releaseVersions;
 
     /**
      * The version comparison rule that is used for this artifact.
@@ -73,8 +81,19 @@ public class ArtifactVersions
     {
         this.artifact = artifact;
         this.versionComparator = versionComparator;
-        this.versions = new TreeSet<ArtifactVersion>( versionComparator );
-        this.versions.addAll( versions );
+        final SortedSet<ArtifactVersion> sorted = new TreeSet<ArtifactVersion>( versionComparator );
+        sorted.addAll( versions );
+        this.versions = sorted.toArray( new ArtifactVersion[sorted.size()] );
+        final List<ArtifactVersion> releases = new ArrayList<ArtifactVersion>( this.versions.length );
+        for ( ArtifactVersion candidate : this.versions )
+        {
+            if ( !ArtifactUtils.isSnapshot( candidate.toString() ) )
+            {
+                releases.add( candidate );
+            }
+        }
+        this.releaseVersions = releases.size() == this.versions.length ? this.versions
+                        : releases.toArray( new ArtifactVersion[releases.size()] );
         if ( artifact.getVersion() != null )
         {
             setCurrentVersion( artifact.getVersion() );
@@ -157,24 +176,15 @@ public class ArtifactVersions
 
     public ArtifactVersion[] getVersions( boolean includeSnapshots )
     {
-        Set<ArtifactVersion> result;
-        if ( includeSnapshots )
-        {
-            result = versions;
-        }
-        else
-        {
-            result = new TreeSet<ArtifactVersion>( versionComparator );
-            for ( ArtifactVersion candidate : versions )
-            {
-                if ( ArtifactUtils.isSnapshot( candidate.toString() ) )
-                {
-                    continue;
-                }
-                result.add( candidate );
-            }
-        }
-        return result.toArray( new ArtifactVersion[result.size()] );
+        return getSortedVersions( includeSnapshots ).clone();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    protected ArtifactVersion[] getSortedVersions( boolean includeSnapshots )
+    {
+        return includeSnapshots ? versions : releaseVersions;
     }
 
     public VersionComparator getVersionComparator()
@@ -190,7 +200,7 @@ public class ArtifactVersions
         final StringBuilder sb = new StringBuilder();
         sb.append( "ArtifactVersions" );
         sb.append( "{artifact=" ).append( artifact );
-        sb.append( ", versions=" ).append( versions );
+        sb.append( ", versions=" ).append( Arrays.asList( versions ) );
         sb.append( ", versionComparator=" ).append( versionComparator );
         sb.append( '}' );
         return sb.toString();
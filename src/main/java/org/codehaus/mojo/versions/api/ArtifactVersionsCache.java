@@ -0,0 +1,203 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.repository.ArtifactRepository;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.mojo.versions.utils.AtomicFileWriter;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A persistent cache of the versions returned by
+ * {@link org.apache.maven.artifact.metadata.ArtifactMetadataSource#retrieveAvailableVersions}. Entries are keyed by
+ * <code>groupId:artifactId</code> and the ids of the repositories that were consulted, and are stored as small
+ * properties files underneath the local repository. An entry older than the time to live is treated as missing.
+ *
+ * @since 2.4
+ */
+class ArtifactVersionsCache
+{
+    /**
+     * The path (relative to the local repository) of the cache directory.
+     */
+    private static final String CACHE_PATH = ".cache/versions-maven-plugin";
+
+    private static final String KEY_LAST_UPDATED = "lastUpdated";
+
+    private static final String KEY_REPOSITORIES = "repositories";
+
+    private static final String KEY_VERSIONS = "versions";
+
+    private final File basedir;
+
+    private final long timeToLive;
+
+    private final boolean forceRefresh;
+
+    private final Log log;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param localRepositoryBasedir the base directory of the local repository.
+     * @param timeToLive how long (in milliseconds) an entry is considered fresh.
+     * @param forceRefresh <code>true</code> to ignore any existing entries (they will still be rewritten).
+     * @param log the log to report problems with the cache to.
+     */
+    ArtifactVersionsCache( File localRepositoryBasedir, long timeToLive, boolean forceRefresh, Log log )
+    {
+        this.basedir = new File( localRepositoryBasedir, CACHE_PATH );
+        this.timeToLive = timeToLive;
+        this.forceRefresh = forceRefresh;
+        this.log = log;
+    }
+
+    /**
+     * Returns the cached versions of the artifact.
+     *
+     * @param artifact the artifact.
+     * @param remoteRepositories the remote repositories that would be consulted.
+     * @return the cached versions or <code>null</code> if there is no fresh entry.
+     */
+    List<ArtifactVersion> get( Artifact artifact, List remoteRepositories )
+    {
+        if ( forceRefresh )
+        {
+            return null;
+        }
+        final File file = getFile( artifact, remoteRepositories );
+        if ( !file.isFile() )
+        {
+            return null;
+        }
+        final Properties entry = new Properties();
+        InputStream in = null;
+        try
+        {
+            in = new BufferedInputStream( new FileInputStream( file ) );
+            entry.load( in );
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Could not read cached versions from " + file, e );
+            return null;
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+        if ( !getRepositoriesKey( remoteRepositories ).equals( entry.getProperty( KEY_REPOSITORIES ) ) )
+        {
+            return null;
+        }
+        final long lastUpdated;
+        try
+        {
+            lastUpdated = Long.parseLong( entry.getProperty( KEY_LAST_UPDATED, "0" ) );
+        }
+        catch ( NumberFormatException e )
+        {
+            return null;
+        }
+        if ( System.currentTimeMillis() - lastUpdated > timeToLive )
+        {
+            return null;
+        }
+        final List<ArtifactVersion> versions = new ArrayList<ArtifactVersion>();
+        for ( String version : StringUtils.split( entry.getProperty( KEY_VERSIONS, "" ), "," ) )
+        {
+            versions.add( new DefaultArtifactVersion( version ) );
+        }
+        return versions;
+    }
+
+    /**
+     * Records the versions of the artifact.
+     *
+     * @param artifact the artifact.
+     * @param remoteRepositories the remote repositories that were consulted.
+     * @param versions the versions that were found.
+     */
+    void put( Artifact artifact, List remoteRepositories, List<ArtifactVersion> versions )
+    {
+        final File file = getFile( artifact, remoteRepositories );
+        final Properties entry = new Properties();
+        entry.setProperty( KEY_LAST_UPDATED, Long.toString( System.currentTimeMillis() ) );
+        entry.setProperty( KEY_REPOSITORIES, getRepositoriesKey( remoteRepositories ) );
+        entry.setProperty( KEY_VERSIONS, StringUtils.join( versions.iterator(), "," ) );
+        try
+        {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            entry.store( bytes, null );
+            AtomicFileWriter.write( file, bytes.toByteArray(), log );
+        }
+        catch ( IOException e )
+        {
+            log.debug( "Could not write cached versions to " + file, e );
+        }
+    }
+
+    private File getFile( Artifact artifact, List remoteRepositories )
+    {
+        File dir = new File( basedir, artifact.getGroupId().replace( '.', '/' ) );
+        dir = new File( dir, artifact.getArtifactId() );
+        String repositories = getRepositoriesKey( remoteRepositories ).replaceAll( "[^A-Za-z0-9_.+-]", "_" );
+        return new File( dir, "versions-" + repositories + ".properties" );
+    }
+
+    /**
+     * Returns a key identifying a list of repositories by their ids.
+     *
+     * @param remoteRepositories the remote repositories.
+     * @return the key.
+     */
+    static String getRepositoriesKey( List remoteRepositories )
+    {
+        if ( remoteRepositories == null || remoteRepositories.isEmpty() )
+        {
+            return "local";
+        }
+        StringBuilder buf = new StringBuilder();
+        for ( Iterator i = remoteRepositories.iterator(); i.hasNext(); )
+        {
+            buf.append( ( (ArtifactRepository) i.next() ).getId() );
+            if ( i.hasNext() )
+            {
+                buf.append( '+' );
+            }
+        }
+        return buf.toString();
+    }
+}
@@ -57,6 +57,7 @@ import org.codehaus.mojo.versions.model.io.xpp3.RuleXpp3Reader;
 import org.codehaus.mojo.versions.ordering.VersionComparator;
 import org.codehaus.mojo.versions.ordering.VersionComparators;
 import org.codehaus.mojo.versions.utils.DependencyComparator;
+import org.codehaus.mojo.versions.utils.LookupExecutor;
 import org.codehaus.mojo.versions.utils.PluginComparator;
 import org.codehaus.mojo.versions.utils.RegexUtils;
 import org.codehaus.mojo.versions.utils.VersionsExpressionEvaluator;
@@ -76,6 +77,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -84,11 +86,13 @@ import java.util.Set;
 import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 
 /**
@@ -100,11 +104,9 @@ import java.util.regex.Pattern;
 public class DefaultVersionsHelper
     implements VersionsHelper
 {
-    private static final String TYPE_EXACT = "exact";
+    static final String TYPE_EXACT = "exact";
 
-    private static final String TYPE_REGEX = "regex";
-
-    private static final int LOOKUP_PARALLEL_THREADS = 5;
+    static final String TYPE_REGEX = "regex";
 
     /**
      * The artifact comparison rules to use.
@@ -113,6 +115,41 @@ public class DefaultVersionsHelper
      */
     private final RuleSet ruleSet;
 
+    /**
+     * The rules of {@link #ruleSet}, compiled for fast lookup.
+     *
+     * @since 2.4
+     */
+    private final RuleIndex ruleIndex;
+
+    /**
+     * The valid global ignore versions of {@link #ruleSet}.
+     *
+     * @since 2.4
+     */
+    private final List<IgnoreVersion> globalIgnoredVersions;
+
+    /**
+     * The compiled {@link #globalIgnoredVersions}.
+     *
+     * @since 2.4
+     */
+    private final IgnoredVersionsMatcher globalIgnoredVersionsMatcher;
+
+    /**
+     * The compiled valid ignore versions (global ones included) of each rule in {@link #ruleSet}.
+     *
+     * @since 2.4
+     */
+    private final Map<Rule, IgnoredVersionsMatcher> ruleIgnoredVersionsMatchers;
+
+    /**
+     * The rule resolved for each artifact, keyed by versionless key.
+     *
+     * @since 2.4
+     */
+    private final ConcurrentMap<String, ResolvedRule> resolvedRules = new ConcurrentHashMap<String, ResolvedRule>();
+
     /**
      * The artifact metadata source to use.
      *
@@ -176,6 +213,42 @@ public class DefaultVersionsHelper
      */
     private final ArtifactResolver artifactResolver;
 
+    /**
+     * The persistent cache of available versions, or <code>null</code> if versions are always looked up.
+     *
+     * @since 2.4
+     */
+    private ArtifactVersionsCache versionsCache;
+
+    /**
+     * The number of threads used for parallel lookups if this is the first helper in the session.
+     *
+     * @since 2.4
+     */
+    private int lookupThreads = LookupExecutor.DEFAULT_THREADS;
+
+    /**
+     * The retrievals of available versions that are in progress, keyed by versionless key and repositories.
+     *
+     * @since 2.4
+     */
+    private final ConcurrentMap<String, FutureTask<List<ArtifactVersion>>> pendingRetrievals =
+        new ConcurrentHashMap<String, FutureTask<List<ArtifactVersion>>>();
+
+    /**
+     * The number of times the available versions of an artifact have been asked for.
+     *
+     * @since 2.4
+     */
+    private final AtomicLong retrievalCount = new AtomicLong();
+
+    /**
+     * The number of times the available versions of an artifact were taken from a retrieval already in progress.
+     *
+     * @since 2.4
+     */
+    private final AtomicLong coalescedRetrievalCount = new AtomicLong();
+
     /**
      * Constructs a new {@link DefaultVersionsHelper}.
      *
@@ -212,6 +285,14 @@ public class DefaultVersionsHelper
         this.remoteArtifactRepositories = remoteArtifactRepositories;
         this.remotePluginRepositories = remotePluginRepositories;
         this.log = log;
+        this.ruleIndex = new RuleIndex( ruleSet.getRules() );
+        this.globalIgnoredVersions = getValidIgnoredVersions( null );
+        this.globalIgnoredVersionsMatcher = new IgnoredVersionsMatcher( globalIgnoredVersions );
+        this.ruleIgnoredVersionsMatchers = new IdentityHashMap<Rule, IgnoredVersionsMatcher>();
+        for ( Rule rule : ruleSet.getRules() )
+        {
+            ruleIgnoredVersionsMatchers.put( rule, getIgnoredVersionsMatcher( rule ) );
+        }
     }
 
     private static RuleSet getRuleSet( Wagon wagon, String remoteURI )
@@ -366,6 +447,73 @@ public class DefaultVersionsHelper
         return ruleSet;
     }
 
+    /**
+     * Configures the persistent cache of available versions, which lives under the local repository.
+     *
+     * @param timeToLive how long (in seconds) cached versions are considered fresh, <code>0</code> or less disables the
+     *            cache.
+     * @param forceRefresh <code>true</code> to ignore (and replace) any cached versions.
+     * @since 2.4
+     */
+    public void setVersionsCache( long timeToLive, boolean forceRefresh )
+    {
+        if ( timeToLive <= 0 || localRepository == null )
+        {
+            versionsCache = null;
+        }
+        else
+        {
+            versionsCache = new ArtifactVersionsCache( new File( localRepository.getBasedir() ), timeToLive * 1000L,
+                                                       forceRefresh, log );
+        }
+    }
+
+    /**
+     * Sets the number of threads used for parallel lookups. The lookup threads are shared by the whole session, so this
+     * only has an effect if no lookups have been made in the session yet.
+     *
+     * @param lookupThreads the number of threads.
+     * @since 2.4
+     */
+    public void setLookupThreads( int lookupThreads )
+    {
+        this.lookupThreads = lookupThreads;
+    }
+
+    /**
+     * Returns the executor used for parallel lookups, which is shared by the whole session.
+     *
+     * @return the executor used for parallel lookups.
+     * @since 2.4
+     */
+    public LookupExecutor getLookupExecutor()
+    {
+        return LookupExecutor.getInstance( mavenSession, lookupThreads );
+    }
+
+    /**
+     * Returns the number of times the available versions of an artifact have been asked for by this helper.
+     *
+     * @return the number of times the available versions of an artifact have been asked for.
+     * @since 2.4
+     */
+    public long getRetrievalCount()
+    {
+        return retrievalCount.get();
+    }
+
+    /**
+     * Returns the number of times the available versions of an artifact were not retrieved because an identical
+     * retrieval was already in progress, whose result was used instead.
+     *
+     * @return the number of duplicate retrievals that were avoided.
+     * @since 2.4
+     */
+    public long getCoalescedRetrievalCount()
+    {
+        return coalescedRetrievalCount.get();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -389,51 +537,29 @@ public class DefaultVersionsHelper
         throws ArtifactMetadataRetrievalException
     {
         List remoteRepositories = usePluginRepositories ? remotePluginRepositories : remoteArtifactRepositories;
-        final List<ArtifactVersion> versions =
-            artifactMetadataSource.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
-        final List<IgnoreVersion> ignoredVersions = getIgnoredVersions( artifact );
+        final List<ArtifactVersion> versions = retrieveAvailableVersions( artifact, remoteRepositories );
+        final IgnoredVersionsMatcher ignoredVersions = getIgnoredVersions( artifact );
         if ( !ignoredVersions.isEmpty() )
         {
             if ( getLog().isDebugEnabled() )
             {
-                getLog().debug( "Found ignored versions: " + showIgnoredVersions( ignoredVersions ) );
+                getLog().debug( "Found ignored versions: "
+                    + showIgnoredVersions( ignoredVersions.getIgnoredVersions() ) );
             }
 
             final Iterator<ArtifactVersion> i = versions.iterator();
             while ( i.hasNext() )
             {
                 final String version = i.next().toString();
-                for ( final IgnoreVersion ignoreVersion : ignoredVersions )
+                if ( ignoredVersions.matches( version ) )
                 {
-                    if ( TYPE_REGEX.equals( ignoreVersion.getType() ) )
+                    if ( getLog().isDebugEnabled() )
                     {
-                        Pattern p = Pattern.compile( ignoreVersion.getVersion() );
-                        if ( p.matcher( version ).matches() )
-                        {
-                            if ( getLog().isDebugEnabled() )
-                            {
-                                getLog().debug( "Version " + version + " for artifact "
-                                    + ArtifactUtils.versionlessKey( artifact ) + " found on ignore list: "
-                                    + ignoreVersion );
-                            }
-                            i.remove();
-                            break;
-                        }
-                    }
-                    else if ( TYPE_EXACT.equals( ignoreVersion.getType() ) )
-                    {
-                        if ( version.equals( ignoreVersion.getVersion() ) )
-                        {
-                            if ( getLog().isDebugEnabled() )
-                            {
-                                getLog().debug( "Version " + version + " for artifact "
-                                    + ArtifactUtils.versionlessKey( artifact ) + " found on ignore list: "
-                                    + ignoreVersion );
-                            }
-                            i.remove();
-                            break;
-                        }
+                        getLog().debug( "Version " + version + " for artifact "
+                            + ArtifactUtils.versionlessKey( artifact ) + " found on ignore list: "
+                            + ignoredVersions.findMatch( version ) );
                     }
+                    i.remove();
                 }
             }
         }
@@ -441,22 +567,144 @@ public class DefaultVersionsHelper
     }
 
     /**
-     * Returns a list of versions which should not be considered when looking for updates.
+     * Retrieves the available versions of the artifact. If the same versions are already being retrieved by another
+     * thread, waits for and shares that result instead of starting a duplicate retrieval.
      *
      * @param artifact The artifact
-     * @return List of ignored version
+     * @param remoteRepositories The remote repositories to consult
+     * @return A modifiable list of the available versions
+     * @throws ArtifactMetadataRetrievalException if the versions could not be retrieved
      */
-    private List<IgnoreVersion> getIgnoredVersions( Artifact artifact )
+    private List<ArtifactVersion> retrieveAvailableVersions( final Artifact artifact, final List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        retrievalCount.incrementAndGet();
+        final String key = ArtifactUtils.versionlessKey( artifact ) + "@"
+            + ArtifactVersionsCache.getRepositoriesKey( remoteRepositories );
+        final FutureTask<List<ArtifactVersion>> retrieval =
+            new FutureTask<List<ArtifactVersion>>( new Callable<List<ArtifactVersion>>()
+            {
+                public List<ArtifactVersion> call()
+                    throws ArtifactMetadataRetrievalException
+                {
+                    return retrieveAvailableVersionsUncoalesced( artifact, remoteRepositories );
+                }
+            } );
+        FutureTask<List<ArtifactVersion>> pending = pendingRetrievals.putIfAbsent( key, retrieval );
+        if ( pending == null )
+        {
+            try
+            {
+                retrieval.run();
+            }
+            finally
+            {
+                pendingRetrievals.remove( key, retrieval );
+            }
+            pending = retrieval;
+        }
+        else
+        {
+            coalescedRetrievalCount.incrementAndGet();
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( "Waiting for the versions of " + key + " already being retrieved" );
+            }
+        }
+        try
+        {
+            // every caller gets its own copy as the ignored versions are removed from it
+            return new ArrayList<ArtifactVersion>( pending.get() );
+        }
+        catch ( ExecutionException e )
+        {
+            if ( e.getCause() instanceof ArtifactMetadataRetrievalException )
+            {
+                throw (ArtifactMetadataRetrievalException) e.getCause();
+            }
+            if ( e.getCause() instanceof RuntimeException )
+            {
+                throw (RuntimeException) e.getCause();
+            }
+            if ( e.getCause() instanceof Error )
+            {
+                throw (Error) e.getCause();
+            }
+            throw new ArtifactMetadataRetrievalException( "Unable to retrieve the versions of " + key + ": "
+                + e.getMessage(), e );
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            throw new ArtifactMetadataRetrievalException( "Interrupted while retrieving the versions of " + key, e );
+        }
+    }
+
+    /**
+     * Retrieves the available versions of the artifact, consulting the persistent cache (if enabled) first.
+     *
+     * @param artifact The artifact
+     * @param remoteRepositories The remote repositories to consult
+     * @return A modifiable list of the available versions
+     * @throws ArtifactMetadataRetrievalException if the versions could not be retrieved
+     */
+    private List<ArtifactVersion> retrieveAvailableVersionsUncoalesced( Artifact artifact, List remoteRepositories )
+        throws ArtifactMetadataRetrievalException
+    {
+        if ( versionsCache == null )
+        {
+            return artifactMetadataSource.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+        }
+        List<ArtifactVersion> versions = versionsCache.get( artifact, remoteRepositories );
+        if ( versions != null )
+        {
+            if ( getLog().isDebugEnabled() )
+            {
+                getLog().debug( "Using cached versions for " + ArtifactUtils.versionlessKey( artifact ) );
+            }
+            return versions;
+        }
+        versions = artifactMetadataSource.retrieveAvailableVersions( artifact, localRepository, remoteRepositories );
+        versionsCache.put( artifact, remoteRepositories, versions );
+        return versions;
+    }
+
+    /**
+     * Returns the versions which should not be considered when looking for updates.
+     *
+     * @param artifact The artifact
+     * @return The compiled list of ignored versions
+     */
+    private IgnoredVersionsMatcher getIgnoredVersions( Artifact artifact )
+    {
+        return getResolvedRule( artifact.getGroupId(), artifact.getArtifactId() ).getIgnoredVersions();
+    }
+
+    /**
+     * Returns the ignore versions of a rule (or the global ones if the rule is <code>null</code>) that have a valid
+     * type and, for regular expressions, a valid pattern, warning about any that do not.
+     *
+     * @param rule The rule or <code>null</code>
+     * @return List of valid ignored version
+     */
+    private List<IgnoreVersion> getValidIgnoredVersions( Rule rule )
     {
         final List<IgnoreVersion> ret = new ArrayList<IgnoreVersion>();
 
-        for ( final IgnoreVersion ignoreVersion : ruleSet.getIgnoreVersions() )
+        for ( final IgnoreVersion ignoreVersion : rule == null ? ruleSet.getIgnoreVersions()
+                        : rule.getIgnoreVersions() )
         {
             if ( !TYPE_EXACT.equals( ignoreVersion.getType() ) && !TYPE_REGEX.equals( ignoreVersion.getType() ) )
             {
-                getLog().warn( "The type attribute '" + ignoreVersion.getType() + "' for global ignoreVersion["
-                    + ignoreVersion + "] is not valid." + " Please use either '" + TYPE_EXACT + "' or '" + TYPE_REGEX
-                    + "'." );
+                getLog().warn( "The type attribute '" + ignoreVersion.getType() + "' for "
+                    + ( rule == null ? "global ignoreVersion[" + ignoreVersion + "]" : String.valueOf( rule ) )
+                    + " is not valid." + " Please use either '" + TYPE_EXACT + "' or '" + TYPE_REGEX + "'." );
+            }
+            else if ( TYPE_REGEX.equals( ignoreVersion.getType() ) && !isValidRegex( ignoreVersion.getVersion() ) )
+            {
+                getLog().warn( "The version '" + ignoreVersion.getVersion() + "' for "
+                    + ( rule == null ? "global ignoreVersion[" + ignoreVersion + "]" : String.valueOf( rule ) )
+                    + " is not a valid regular expression." );
             }
             else
             {
@@ -464,25 +712,66 @@ public class DefaultVersionsHelper
             }
         }
 
-        final Rule rule = getBestFitRule( artifact.getGroupId(), artifact.getArtifactId() );
+        return ret;
+    }
+
+    private static boolean isValidRegex( String regex )
+    {
+        try
+        {
+            Pattern.compile( regex );
+            return true;
+        }
+        catch ( PatternSyntaxException e )
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Compiles the valid global ignore versions together with the valid ignore versions of a rule.
+     *
+     * @param rule The rule
+     * @return The compiled ignore versions
+     */
+    private IgnoredVersionsMatcher getIgnoredVersionsMatcher( Rule rule )
+    {
+        final List<IgnoreVersion> ignoredVersions = new ArrayList<IgnoreVersion>( globalIgnoredVersions );
+        ignoredVersions.addAll( getValidIgnoredVersions( rule ) );
+        return new IgnoredVersionsMatcher( ignoredVersions );
+    }
 
-        if ( rule != null )
+    /**
+     * Returns the rule, version comparator and ignored versions that apply to an artifact, resolving them the first
+     * time the artifact is asked about.
+     *
+     * @param groupId Group id of the artifact
+     * @param artifactId Artifact id of the artifact
+     * @return The resolved rule
+     */
+    private ResolvedRule getResolvedRule( String groupId, String artifactId )
+    {
+        final String key = ArtifactUtils.versionlessKey( groupId, artifactId );
+        ResolvedRule resolved = resolvedRules.get( key );
+        if ( resolved == null )
         {
-            for ( IgnoreVersion ignoreVersion : rule.getIgnoreVersions() )
+            final Rule rule = getBestFitRule( groupId, artifactId );
+            final String comparisonMethod = rule == null ? ruleSet.getComparisonMethod() : rule.getComparisonMethod();
+            IgnoredVersionsMatcher ignoredVersions =
+                rule == null ? globalIgnoredVersionsMatcher : ruleIgnoredVersionsMatchers.get( rule );
+            if ( ignoredVersions == null )
             {
-                if ( !TYPE_EXACT.equals( ignoreVersion.getType() ) && !TYPE_REGEX.equals( ignoreVersion.getType() ) )
-                {
-                    getLog().warn( "The type attribute '" + ignoreVersion.getType() + "' for " + rule + " is not valid."
-                        + " Please use either '" + TYPE_EXACT + "' or '" + TYPE_REGEX + "'." );
-                }
-                else
-                {
-                    ret.add( ignoreVersion );
-                }
+                // not one of ours, must come from an overridden getBestFitRule
+                ignoredVersions = getIgnoredVersionsMatcher( rule );
+            }
+            resolved = new ResolvedRule( VersionComparators.getVersionComparator( comparisonMethod ), ignoredVersions );
+            final ResolvedRule existing = resolvedRules.putIfAbsent( key, resolved );
+            if ( existing != null )
+            {
+                resolved = existing;
             }
         }
-
-        return ret;
+        return resolved;
     }
 
     /**
@@ -527,9 +816,7 @@ public class DefaultVersionsHelper
      */
     public VersionComparator getVersionComparator( String groupId, String artifactId )
     {
-        Rule rule = getBestFitRule( groupId, artifactId );
-        final String comparisonMethod = rule == null ? ruleSet.getComparisonMethod() : rule.getComparisonMethod();
-        return VersionComparators.getVersionComparator( comparisonMethod );
+        return getResolvedRule( groupId, artifactId ).getVersionComparator();
     }
 
     /**
@@ -541,56 +828,7 @@ public class DefaultVersionsHelper
      */
     protected Rule getBestFitRule( String groupId, String artifactId )
     {
-        Rule bestFit = null;
-        final List<Rule> rules = ruleSet.getRules();
-        int bestGroupIdScore = Integer.MAX_VALUE;
-        int bestArtifactIdScore = Integer.MAX_VALUE;
-        boolean exactGroupId = false;
-        boolean exactArtifactId = false;
-        for ( Rule rule : rules )
-        {
-            int groupIdScore = RegexUtils.getWildcardScore( rule.getGroupId() );
-            if ( groupIdScore > bestGroupIdScore )
-            {
-                continue;
-            }
-            boolean exactMatch = exactMatch( rule.getGroupId(), groupId );
-            boolean match = exactMatch || match( rule.getGroupId(), groupId );
-            if ( !match || ( exactGroupId && !exactMatch ) )
-            {
-                continue;
-            }
-            if ( bestGroupIdScore > groupIdScore )
-            {
-                bestArtifactIdScore = Integer.MAX_VALUE;
-                exactArtifactId = false;
-            }
-            bestGroupIdScore = groupIdScore;
-            if ( exactMatch && !exactGroupId )
-            {
-                exactGroupId = true;
-                bestArtifactIdScore = Integer.MAX_VALUE;
-                exactArtifactId = false;
-            }
-            int artifactIdScore = RegexUtils.getWildcardScore( rule.getArtifactId() );
-            if ( artifactIdScore > bestArtifactIdScore )
-            {
-                continue;
-            }
-            exactMatch = exactMatch( rule.getArtifactId(), artifactId );
-            match = exactMatch || match( rule.getArtifactId(), artifactId );
-            if ( !match || ( exactArtifactId && !exactMatch ) )
-            {
-                continue;
-            }
-            bestArtifactIdScore = artifactIdScore;
-            if ( exactMatch && !exactArtifactId )
-            {
-                exactArtifactId = true;
-            }
-            bestFit = rule;
-        }
-        return bestFit;
+        return ruleIndex.getBestFitRule( groupId, artifactId );
     }
 
     /**
@@ -690,16 +928,14 @@ public class DefaultVersionsHelper
             new TreeMap<Dependency, ArtifactVersions>( new DependencyComparator() );
 
         // Lookup details in parallel...
-        final ExecutorService executor = Executors.newFixedThreadPool( LOOKUP_PARALLEL_THREADS );
         try
         {
-            final List<Future<DependencyArtifactVersions>> responseForDetails =
-                executor.invokeAll( requestsForDetails );
+            final List<DependencyArtifactVersions> responseForDetails =
+                getLookupExecutor().invokeAll( requestsForDetails );
 
             // Construct the final results...
-            for ( final Future<DependencyArtifactVersions> details : responseForDetails )
+            for ( final DependencyArtifactVersions dav : responseForDetails )
             {
-                final DependencyArtifactVersions dav = details.get();
                 dependencyUpdates.put( dav.getDependency(), dav.getArtifactVersions() );
             }
         }
@@ -713,10 +949,6 @@ public class DefaultVersionsHelper
             throw new ArtifactMetadataRetrievalException( "Unable to acquire metadata for dependencies " + dependencies
                 + ": " + ie.getMessage(), ie );
         }
-        finally
-        {
-            executor.shutdownNow();
-        }
         return dependencyUpdates;
     }
 
@@ -755,16 +987,14 @@ public class DefaultVersionsHelper
             new TreeMap<Plugin, PluginUpdatesDetails>( new PluginComparator() );
 
         // Lookup details in parallel...
-        final ExecutorService executor = Executors.newFixedThreadPool( LOOKUP_PARALLEL_THREADS );
         try
         {
-            final List<Future<PluginPluginUpdatesDetails>> responseForDetails =
-                executor.invokeAll( requestsForDetails );
+            final List<PluginPluginUpdatesDetails> responseForDetails =
+                getLookupExecutor().invokeAll( requestsForDetails );
 
             // Construct the final results...
-            for ( final Future<PluginPluginUpdatesDetails> details : responseForDetails )
+            for ( final PluginPluginUpdatesDetails pud : responseForDetails )
             {
-                final PluginPluginUpdatesDetails pud = details.get();
                 pluginUpdates.put( pud.getPlugin(), pud.getPluginUpdatesDetails() );
             }
         }
@@ -778,10 +1008,6 @@ public class DefaultVersionsHelper
             throw new ArtifactMetadataRetrievalException( "Unable to acquire metadata for plugins " + plugins + ": "
                 + ie.getMessage(), ie );
         }
-        finally
-        {
-            executor.shutdownNow();
-        }
         return pluginUpdates;
     }
 
@@ -959,6 +1185,30 @@ public class DefaultVersionsHelper
         return propertiesList;
     }
 
+    // This is a data container to hold everything the rule set says about an artifact.
+    private static class ResolvedRule
+    {
+        private final VersionComparator versionComparator;
+
+        private final IgnoredVersionsMatcher ignoredVersions;
+
+        public ResolvedRule( final VersionComparator versionComparator, final IgnoredVersionsMatcher ignoredVersions )
+        {
+            this.versionComparator = versionComparator;
+            this.ignoredVersions = ignoredVersions;
+        }
+
+        public VersionComparator getVersionComparator()
+        {
+            return versionComparator;
+        }
+
+        public IgnoredVersionsMatcher getIgnoredVersions()
+        {
+            return ignoredVersions;
+        }
+    }
+
     // This is a data container to hold the result of a Dependency lookup to its ArtifactVersions.
     private static class DependencyArtifactVersions
     {
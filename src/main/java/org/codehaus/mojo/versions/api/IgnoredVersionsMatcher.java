@@ -0,0 +1,193 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.mojo.versions.model.IgnoreVersion;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A list of {@link IgnoreVersion}s compiled once for matching many versions: the <code>exact</code> entries are held
+ * in a hash map and the <code>regex</code> entries are combined into a single alternation, so that checking a version
+ * takes one hash lookup and one regex match.
+ *
+ * @since 2.4
+ */
+final class IgnoredVersionsMatcher
+{
+    /**
+     * Regexes that cannot safely be wrapped in a group and combined with others: back references (the group numbers
+     * would shift) and quoted sections (which might not be closed).
+     */
+    private static final Pattern NOT_COMBINABLE = Pattern.compile( "\\\\(?:[1-9]|k<|Q)" );
+
+    private final List<IgnoreVersion> ignoredVersions;
+
+    private final Map<String, IgnoreVersion> exactVersions = new HashMap<String, IgnoreVersion>();
+
+    /**
+     * The combined <code>regex</code> entries or <code>null</code> if there are none that could be combined.
+     */
+    private final Pattern combinedPattern;
+
+    /**
+     * The <code>regex</code> entries that could not be combined.
+     */
+    private final List<Pattern> separatePatterns = new ArrayList<Pattern>();
+
+    /**
+     * Compiles the ignore versions.
+     *
+     * @param ignoredVersions the ignore versions, all of which must have a valid type and (for <code>regex</code>)
+     *            a valid pattern.
+     */
+    IgnoredVersionsMatcher( List<IgnoreVersion> ignoredVersions )
+    {
+        this.ignoredVersions = Collections.unmodifiableList( new ArrayList<IgnoreVersion>( ignoredVersions ) );
+        final List<String> combinable = new ArrayList<String>();
+        for ( IgnoreVersion ignoreVersion : ignoredVersions )
+        {
+            if ( DefaultVersionsHelper.TYPE_REGEX.equals( ignoreVersion.getType() ) )
+            {
+                if ( NOT_COMBINABLE.matcher( ignoreVersion.getVersion() ).find() )
+                {
+                    separatePatterns.add( Pattern.compile( ignoreVersion.getVersion() ) );
+                }
+                else
+                {
+                    combinable.add( ignoreVersion.getVersion() );
+                }
+            }
+            else if ( !exactVersions.containsKey( ignoreVersion.getVersion() ) )
+            {
+                exactVersions.put( ignoreVersion.getVersion(), ignoreVersion );
+            }
+        }
+        combinedPattern = combine( combinable );
+    }
+
+    private Pattern combine( List<String> regexes )
+    {
+        if ( regexes.isEmpty() )
+        {
+            return null;
+        }
+        if ( regexes.size() == 1 )
+        {
+            return Pattern.compile( regexes.get( 0 ) );
+        }
+        StringBuilder buf = new StringBuilder();
+        for ( Iterator<String> i = regexes.iterator(); i.hasNext(); )
+        {
+            buf.append( "(?:" ).append( i.next() ).append( ')' );
+            if ( i.hasNext() )
+            {
+                buf.append( '|' );
+            }
+        }
+        try
+        {
+            return Pattern.compile( buf.toString() );
+        }
+        catch ( PatternSyntaxException e )
+        {
+            // something in one of the regexes does not survive being wrapped, fall back to matching them one by one
+            for ( String regex : regexes )
+            {
+                separatePatterns.add( Pattern.compile( regex ) );
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Returns the ignore versions.
+     *
+     * @return the ignore versions.
+     */
+    List<IgnoreVersion> getIgnoredVersions()
+    {
+        return ignoredVersions;
+    }
+
+    /**
+     * Returns <code>true</code> if there are no ignore versions.
+     *
+     * @return <code>true</code> if there are no ignore versions.
+     */
+    boolean isEmpty()
+    {
+        return ignoredVersions.isEmpty();
+    }
+
+    /**
+     * Checks whether a version should be ignored.
+     *
+     * @param version the version.
+     * @return <code>true</code> if the version matches any of the ignore versions.
+     */
+    boolean matches( String version )
+    {
+        if ( exactVersions.containsKey( version ) )
+        {
+            return true;
+        }
+        if ( combinedPattern != null && combinedPattern.matcher( version ).matches() )
+        {
+            return true;
+        }
+        for ( Pattern pattern : separatePatterns )
+        {
+            if ( pattern.matcher( version ).matches() )
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Finds the first ignore version that a version matches. This is slower than {@link #matches(String)} and is
+     * intended for reporting.
+     *
+     * @param version the version.
+     * @return the first ignore version that matches or <code>null</code>.
+     */
+    IgnoreVersion findMatch( String version )
+    {
+        for ( IgnoreVersion ignoreVersion : ignoredVersions )
+        {
+            if ( DefaultVersionsHelper.TYPE_REGEX.equals( ignoreVersion.getType() )
+                ? Pattern.matches( ignoreVersion.getVersion(), version )
+                : version.equals( ignoreVersion.getVersion() ) )
+            {
+                return ignoreVersion;
+            }
+        }
+        return null;
+    }
+}
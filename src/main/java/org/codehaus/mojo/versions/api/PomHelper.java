@@ -35,11 +35,14 @@ import org.apache.maven.profiles.ProfileManager;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.rewriting.PomIndex;
+import org.codehaus.mojo.versions.utils.BufferedLog;
+import org.codehaus.mojo.versions.utils.LookupExecutor;
 import org.codehaus.mojo.versions.utils.RegexUtils;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluationException;
 import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
-import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
@@ -50,16 +53,18 @@ import javax.xml.stream.events.XMLEvent;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StringReader;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Enumeration;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -67,6 +72,8 @@ import java.util.Set;
 import java.util.Stack;
 import java.util.TreeMap;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -80,6 +87,30 @@ public class PomHelper
 {
     public static final String APACHE_MAVEN_PLUGINS_GROUPID = "org.apache.maven.plugins";
 
+    /**
+     * The paths of the elements whose values are the implicit properties that dependency coordinates may refer to.
+     */
+    private static final Set<String> IMPLICIT_PATHS =
+        Collections.unmodifiableSet( new HashSet<String>( Arrays.asList( "/project/parent/groupId",
+                                                                         "/project/parent/artifactId",
+                                                                         "/project/parent/version",
+                                                                         "/project/groupId", "/project/artifactId",
+                                                                         "/project/version" ) ) );
+
+    /**
+     * The paths of the elements that declare dependencies.
+     */
+    private static final List<String> DEPENDENCY_SCOPES =
+        withProfiles( "/dependencies/dependency", "/dependencyManagement/dependencies/dependency",
+                      "/build/plugins/plugin/dependencies/dependency",
+                      "/build/pluginManagement/plugins/plugin/dependencies/dependency" );
+
+    /**
+     * The paths of the elements that declare plugins.
+     */
+    private static final List<String> PLUGIN_SCOPES =
+        withProfiles( "/build/plugins/plugin", "/build/pluginManagement/plugins/plugin", "/reporting/plugins/plugin" );
+
     /**
      * Gets the raw model before any interpolation what-so-ever.
      *
@@ -135,12 +166,9 @@ public class PomHelper
     public static Model getRawModel( ModifiedPomXMLEventReader modifiedPomXMLEventReader )
         throws IOException
     {
-        StringReader stringReader = null;
         try
         {
-            stringReader = new StringReader( modifiedPomXMLEventReader.asStringBuilder().toString() );
-            MavenXpp3Reader reader = new MavenXpp3Reader();
-            return reader.read( stringReader );
+            return modifiedPomXMLEventReader.parse();
         }
         catch ( XmlPullParserException e )
         {
@@ -148,13 +176,63 @@ public class PomHelper
             ioe.initCause( e );
             throw ioe;
         }
-        finally
+    }
+
+    /**
+     * Gets the coordinates of the current raw model before any interpolation what-so-ever. Only the groupId,
+     * artifactId, version, packaging and parent of the returned model are set. They are read from the
+     * {@link ModifiedPomXMLEventReader#getIndex() index} that the setters use, rather than by parsing the whole pom
+     * again as {@link #getRawModel(ModifiedPomXMLEventReader)} does.
+     *
+     * @param pom The {@link ModifiedPomXMLEventReader} to get the coordinates for.
+     * @return The model holding the coordinates.
+     * @throws XMLStreamException if the pom could not be read.
+     * @since 2.4
+     */
+    public static Model getRawModelCoordinates( ModifiedPomXMLEventReader pom )
+        throws XMLStreamException
+    {
+        final PomIndex index = pom.getIndex();
+        final Model model = new Model();
+        model.setGroupId( getLastText( index, "/project/groupId" ) );
+        model.setArtifactId( getLastText( index, "/project/artifactId" ) );
+        model.setVersion( getLastText( index, "/project/version" ) );
+        final String packaging = getLastText( index, "/project/packaging" );
+        if ( packaging != null )
         {
-            if ( stringReader != null )
+            model.setPackaging( packaging );
+        }
+        if ( index.getElement( "/project/parent" ) != null )
+        {
+            final Parent parent = new Parent();
+            parent.setGroupId( getLastText( index, "/project/parent/groupId" ) );
+            parent.setArtifactId( getLastText( index, "/project/parent/artifactId" ) );
+            parent.setVersion( getLastText( index, "/project/parent/version" ) );
+            final String relativePath = getLastText( index, "/project/parent/relativePath" );
+            if ( relativePath != null )
             {
-                stringReader.close();
+                parent.setRelativePath( relativePath );
             }
+            model.setParent( parent );
+        }
+        return model;
+    }
+
+    /**
+     * Returns the paths (relative to the project) both as they are and within a profile.
+     *
+     * @param paths The paths relative to <code>/project</code>.
+     * @return The absolute paths.
+     */
+    private static List<String> withProfiles( String... paths )
+    {
+        List<String> result = new ArrayList<String>( paths.length * 2 );
+        for ( String path : paths )
+        {
+            result.add( "/project" + path );
+            result.add( "/project/profiles/profile" + path );
         }
+        return Collections.unmodifiableList( result );
     }
 
     /**
@@ -171,75 +249,11 @@ public class PomHelper
                                               final String property, final String value )
                                                   throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern propertyRegex;
-        final Pattern matchScopeRegex;
-        final Pattern projectProfileId;
-        boolean inMatchScope = false;
         boolean madeReplacement = false;
-        if ( profileId == null )
+        for ( PomIndex.Element definition : pom.getIndex().getPropertyDefinitions( profileId, property ) )
         {
-            propertyRegex = Pattern.compile( "/project/properties/" + RegexUtils.quote( property ) );
-            matchScopeRegex = Pattern.compile( "/project/properties" );
-            projectProfileId = null;
-        }
-        else
-        {
-            propertyRegex = Pattern.compile( "/project/profiles/profile/properties/" + RegexUtils.quote( property ) );
-            matchScopeRegex = Pattern.compile( "/project/profiles/profile" );
-            projectProfileId = Pattern.compile( "/project/profiles/profile/id" );
-        }
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
-        {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
-            {
-                stack.push( path );
-                path = path + "/" + event.asStartElement().getName().getLocalPart();
-
-                if ( propertyRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 0 );
-                }
-                else if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    // we're in a new match scope
-                    // reset any previous partial matches
-                    inMatchScope = profileId == null;
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                }
-                else if ( profileId != null && projectProfileId.matcher( path ).matches() )
-                {
-                    String candidateId = pom.getElementText();
-                    path = stack.pop(); // since getElementText will be after the end element
-
-                    inMatchScope = profileId.trim().equals( candidateId.trim() );
-                }
-            }
-            if ( event.isEndElement() )
-            {
-                if ( propertyRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 1 );
-                }
-                else if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) )
-                    {
-                        pom.replaceBetween( 0, 1, value );
-                        madeReplacement = true;
-                    }
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                    inMatchScope = false;
-                }
-                path = stack.pop();
-            }
+            pom.replaceContent( definition, value );
+            madeReplacement = true;
         }
         return madeReplacement;
     }
@@ -255,42 +269,11 @@ public class PomHelper
     public static boolean setProjectVersion( final ModifiedPomXMLEventReader pom, final String value )
         throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern matchScopeRegex;
         boolean madeReplacement = false;
-        matchScopeRegex = Pattern.compile( "/project/version" );
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
+        for ( PomIndex.Element version : pom.getIndex().getElements( "/project/version" ) )
         {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
-            {
-                stack.push( path );
-                path = path + "/" + event.asStartElement().getName().getLocalPart();
-
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 0 );
-                }
-            }
-            if ( event.isEndElement() )
-            {
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 1 );
-                    if ( pom.hasMark( 0 ) && pom.hasMark( 1 ) )
-                    {
-                        pom.replaceBetween( 0, 1, value );
-                        madeReplacement = true;
-                    }
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                }
-                path = stack.pop();
-            }
+            pom.replaceContent( version, value );
+            madeReplacement = true;
         }
         return madeReplacement;
     }
@@ -306,41 +289,8 @@ public class PomHelper
     public static String getProjectVersion( final ModifiedPomXMLEventReader pom )
         throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern matchScopeRegex = Pattern.compile( "/project/version" );
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
-        {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
-            {
-                stack.push( path );
-                path = path + "/" + event.asStartElement().getName().getLocalPart();
-
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 0 );
-                }
-            }
-            if ( event.isEndElement() )
-            {
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 1 );
-                    if ( pom.hasMark( 0 ) && pom.hasMark( 1 ) )
-                    {
-                        return pom.getBetween( 0, 1 ).trim();
-                    }
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                }
-                path = stack.pop();
-            }
-        }
-        return null;
+        PomIndex.Element version = pom.getIndex().getElement( "/project/version" );
+        return version == null ? null : pom.getContent( version ).trim();
     }
 
     /**
@@ -354,42 +304,11 @@ public class PomHelper
     public static boolean setProjectParentVersion( final ModifiedPomXMLEventReader pom, final String value )
         throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern matchScopeRegex;
         boolean madeReplacement = false;
-        matchScopeRegex = Pattern.compile( "/project/parent/version" );
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
+        for ( PomIndex.Element version : pom.getIndex().getElements( "/project/parent/version" ) )
         {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
-            {
-                stack.push( path );
-                path = path + "/" + event.asStartElement().getName().getLocalPart();
-
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 0 );
-                }
-            }
-            if ( event.isEndElement() )
-            {
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    pom.mark( 1 );
-                    if ( pom.hasMark( 0 ) && pom.hasMark( 1 ) )
-                    {
-                        pom.replaceBetween( 0, 1, value );
-                        madeReplacement = true;
-                    }
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                }
-                path = stack.pop();
-            }
+            pom.replaceContent( version, value );
+            madeReplacement = true;
         }
         return madeReplacement;
     }
@@ -405,48 +324,10 @@ public class PomHelper
     public static Artifact getProjectParent( final ModifiedPomXMLEventReader pom, VersionsHelper helper )
         throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern matchScopeRegex = Pattern.compile( "/project/parent((/groupId)|(/artifactId)|(/version))" );
-        String groupId = null;
-        String artifactId = null;
-        String version = null;
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
-        {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
-            {
-                stack.push( path );
-                final String elementName = event.asStartElement().getName().getLocalPart();
-                path = path + "/" + elementName;
-
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    if ( "groupId".equals( elementName ) )
-                    {
-                        groupId = pom.getElementText().trim();
-                        path = stack.pop();
-                    }
-                    else if ( "artifactId".equals( elementName ) )
-                    {
-                        artifactId = pom.getElementText().trim();
-                        path = stack.pop();
-                    }
-                    else if ( "version".equals( elementName ) )
-                    {
-                        version = pom.getElementText().trim();
-                        path = stack.pop();
-                    }
-                }
-            }
-            if ( event.isEndElement() )
-            {
-                path = stack.pop();
-            }
-        }
+        final PomIndex index = pom.getIndex();
+        final String groupId = getLastText( index, "/project/parent/groupId" );
+        final String artifactId = getLastText( index, "/project/parent/artifactId" );
+        final String version = getLastText( index, "/project/parent/version" );
         if ( groupId == null || artifactId == null || version == null )
         {
             return null;
@@ -455,6 +336,20 @@ public class PomHelper
                                                 null, null, false );
     }
 
+    /**
+     * Returns the trimmed text of the last element with the specified path.
+     *
+     * @param index The index of the pom.
+     * @param path The path.
+     * @return The trimmed text or <code>null</code> if there is no such element.
+     */
+    private static String getLastText( PomIndex index, String path )
+    {
+        List<PomIndex.Element> elements = index.getElements( path );
+        String text = elements.isEmpty() ? null : elements.get( elements.size() - 1 ).getText();
+        return text == null ? null : text.trim();
+    }
+
     /**
      * Searches the pom re-defining the specified dependency to the specified version.
      *
@@ -471,40 +366,115 @@ public class PomHelper
                                                 final String newVersion )
                                                     throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
+        return !setDependencyVersions( pom, Collections.singletonList( new VersionChange( groupId, artifactId,
+                                                                                          oldVersion,
+                                                                                          newVersion ) ) ).isEmpty();
+    }
 
-        Set<String> implicitPaths =
-            new HashSet<String>( Arrays.<String>asList( "/project/parent/groupId", "/project/parent/artifactId",
-                                                        "/project/parent/version", "/project/groupId",
-                                                        "/project/artifactId", "/project/version" ) );
-        Map<String, String> implicitProperties = new HashMap<String, String>();
+    /**
+     * Searches the pom re-defining the dependencies to the specified versions. All the changes are made in a single
+     * pass over the pom, and give the same result as applying them one at a time in order with
+     * {@link #setDependencyVersion(ModifiedPomXMLEventReader, String, String, String, String)}.
+     *
+     * @param pom The pom to modify.
+     * @param versionChanges The changes to make.
+     * @return The changes that caused a replacement, in the order they were first applied.
+     * @throws XMLStreamException if somethinh went wrong.
+     * @since 2.4
+     */
+    public static Set<VersionChange> setDependencyVersions( final ModifiedPomXMLEventReader pom,
+                                                            final Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        final Map<String, List<VersionChange>> changesByKey = new HashMap<String, List<VersionChange>>();
+        for ( VersionChange versionChange : versionChanges )
+        {
+            final String key = versionChange.getGroupId() + ":" + versionChange.getArtifactId();
+            List<VersionChange> changes = changesByKey.get( key );
+            if ( changes == null )
+            {
+                changes = new ArrayList<VersionChange>( 1 );
+                changesByKey.put( key, changes );
+            }
+            changes.add( versionChange );
+        }
+        final Set<VersionChange> applied = new LinkedHashSet<VersionChange>();
+        if ( changesByKey.isEmpty() )
+        {
+            return applied;
+        }
 
-        pom.rewind();
+        final PomIndex index = pom.getIndex();
+        final Map<String, String> implicitProperties = getImplicitProperties( index );
 
-        while ( pom.hasNext() )
+        for ( PomIndex.Element dependency : getElements( index, DEPENDENCY_SCOPES ) )
         {
-            while ( pom.hasNext() )
+            final String groupId = getLastChildText( dependency, "groupId" );
+            final String artifactId = getLastChildText( dependency, "artifactId" );
+            final PomIndex.Element versionElement = dependency.getLastChild( "version" );
+            if ( groupId == null || artifactId == null || versionElement == null )
             {
-                XMLEvent event = pom.nextEvent();
-                if ( event.isStartElement() )
-                {
-                    stack.push( path );
-                    final String elementName = event.asStartElement().getName().getLocalPart();
-                    path = path + "/" + elementName;
-
-                    if ( implicitPaths.contains( path ) )
-                    {
-                        final String elementText = pom.getElementText().trim();
-                        implicitProperties.put( path.substring( 1 ).replace( '/', '.' ), elementText );
-                        path = stack.pop();
-                    }
-                }
-                if ( event.isEndElement() )
+                continue;
+            }
+            final List<VersionChange> changes = changesByKey.get( evaluate( groupId, implicitProperties ) + ":"
+                + evaluate( artifactId, implicitProperties ) );
+            if ( changes == null )
+            {
+                continue;
+            }
+            // each change sees the version as left by the ones before it
+            String version = pom.getContent( versionElement ).trim();
+            boolean replaced = false;
+            for ( VersionChange change : changes )
+            {
+                if ( isDependencyVersionMatch( change.getOldVersion(), version ) )
                 {
-                    path = stack.pop();
+                    version = change.getNewVersion();
+                    replaced = true;
+                    applied.add( change );
                 }
             }
+            if ( replaced )
+            {
+                pom.replaceContent( versionElement, version );
+            }
+        }
+        return applied;
+    }
+
+    private static boolean isDependencyVersionMatch( String oldVersion, String pomVersion )
+    {
+        String compressedPomVersion = StringUtils.deleteWhitespace( pomVersion.trim() );
+        String compressedOldVersion = StringUtils.deleteWhitespace( oldVersion );
+
+        try
+        {
+            return isVersionOverlap( compressedOldVersion, compressedPomVersion );
+        }
+        catch ( InvalidVersionSpecificationException e )
+        {
+            // fall back to string comparison
+            return compressedOldVersion.equals( compressedPomVersion );
+        }
+    }
+
+    /**
+     * Reads the implicit properties (<code>project.groupId</code> and the like) that the coordinates of dependencies
+     * may refer to, with the project ones falling back to the parent ones.
+     *
+     * @param index The index of the pom.
+     * @return The implicit properties.
+     */
+    private static Map<String, String> getImplicitProperties( final PomIndex index )
+    {
+        Map<String, String> implicitProperties = new HashMap<String, String>();
+        for ( String path : IMPLICIT_PATHS )
+        {
+            String text = getLastText( index, path );
+            if ( text != null )
+            {
+                implicitProperties.put( path.substring( 1 ).replace( '/', '.' ), text );
+            }
         }
 
         boolean modified = true;
@@ -525,102 +495,44 @@ public class PomHelper
                 }
             }
         }
+        return implicitProperties;
+    }
 
-        stack = new Stack<String>();
-        path = "";
-        boolean inMatchScope = false;
-        boolean madeReplacement = false;
-        boolean haveGroupId = false;
-        boolean haveArtifactId = false;
-        boolean haveOldVersion = false;
-
-        final Pattern matchScopeRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
-            + "((/dependencyManagement)|(/build(/pluginManagement)?/plugins/plugin))?" + "/dependencies/dependency" );
-
-        final Pattern matchTargetRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
-            + "((/dependencyManagement)|(/build(/pluginManagement)?/plugins/plugin))?" + "/dependencies/dependency"
-            + "((/groupId)|(/artifactId)|(/version))" );
-
-        pom.rewind();
-
-        while ( pom.hasNext() )
+    /**
+     * Returns the elements with any of the specified paths, in document order.
+     *
+     * @param index The index of the pom.
+     * @param paths The paths.
+     * @return The elements.
+     */
+    private static List<PomIndex.Element> getElements( PomIndex index, List<String> paths )
+    {
+        List<PomIndex.Element> result = new ArrayList<PomIndex.Element>();
+        for ( String path : paths )
         {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
+            result.addAll( index.getElements( path ) );
+        }
+        Collections.sort( result, new Comparator<PomIndex.Element>()
+        {
+            public int compare( PomIndex.Element o1, PomIndex.Element o2 )
             {
-                stack.push( path );
-                final String elementName = event.asStartElement().getName().getLocalPart();
-                path = path + "/" + elementName;
-
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    // we're in a new match scope
-                    // reset any previous partial matches
-                    inMatchScope = true;
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-
-                    haveGroupId = false;
-                    haveArtifactId = false;
-                    haveOldVersion = false;
-                }
-                else if ( inMatchScope && matchTargetRegex.matcher( path ).matches() )
-                {
-                    if ( "groupId".equals( elementName ) )
-                    {
-                        haveGroupId = groupId.equals( evaluate( pom.getElementText().trim(), implicitProperties ) );
-                        path = stack.pop();
-                    }
-                    else if ( "artifactId".equals( elementName ) )
-                    {
-                        haveArtifactId =
-                            artifactId.equals( evaluate( pom.getElementText().trim(), implicitProperties ) );
-                        path = stack.pop();
-                    }
-                    else if ( "version".equals( elementName ) )
-                    {
-                        pom.mark( 0 );
-                    }
-                }
+                return o1.getContentStart() - o2.getContentStart();
             }
-            if ( event.isEndElement() )
-            {
-                if ( matchTargetRegex.matcher( path ).matches()
-                    && "version".equals( event.asEndElement().getName().getLocalPart() ) )
-                {
-                    pom.mark( 1 );
-                    String compressedPomVersion = StringUtils.deleteWhitespace( pom.getBetween( 0, 1 ).trim() );
-                    String compressedOldVersion = StringUtils.deleteWhitespace( oldVersion );
+        } );
+        return result;
+    }
 
-                    try
-                    {
-                        haveOldVersion = isVersionOverlap( compressedOldVersion, compressedPomVersion );
-                    }
-                    catch ( InvalidVersionSpecificationException e )
-                    {
-                        // fall back to string comparison
-                        haveOldVersion = compressedOldVersion.equals( compressedPomVersion );
-                    }
-                }
-                else if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && haveGroupId && haveArtifactId
-                        && haveOldVersion )
-                    {
-                        pom.replaceBetween( 0, 1, newVersion );
-                        madeReplacement = true;
-                    }
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-                    haveArtifactId = false;
-                    haveGroupId = false;
-                    haveOldVersion = false;
-                    inMatchScope = false;
-                }
-                path = stack.pop();
-            }
-        }
-        return madeReplacement;
+    /**
+     * Returns the trimmed text of the last child element with the specified name.
+     *
+     * @param element The parent element.
+     * @param name The name of the child element.
+     * @return The trimmed text or <code>null</code> if there is no such child element.
+     */
+    private static String getLastChildText( PomIndex.Element element, String name )
+    {
+        PomIndex.Element child = element.getLastChild( name );
+        return child == null || child.getText() == null ? null : child.getText().trim();
     }
 
     /**
@@ -769,100 +681,91 @@ public class PomHelper
                                             final String artifactId, final String oldVersion, final String newVersion )
                                                 throws XMLStreamException
     {
-        Stack<String> stack = new Stack<String>();
-        String path = "";
-        final Pattern matchScopeRegex;
-        final Pattern matchTargetRegex;
-        boolean inMatchScope = false;
-        boolean madeReplacement = false;
-        boolean haveGroupId = false;
-        boolean needGroupId = groupId != null && !APACHE_MAVEN_PLUGINS_GROUPID.equals( groupId );
-        boolean haveArtifactId = false;
-        boolean haveOldVersion = false;
-
-        matchScopeRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
-            + "((/build(/pluginManagement)?)|(/reporting))/plugins/plugin" );
-
-        matchTargetRegex = Pattern.compile( "/project" + "(/profiles/profile)?"
-            + "((/build(/pluginManagement)?)|(/reporting))/plugins/plugin" + "((/groupId)|(/artifactId)|(/version))" );
-
-        pom.rewind();
+        return !setPluginVersions( pom, Collections.singletonList( new VersionChange( groupId, artifactId, oldVersion,
+                                                                                      newVersion ) ) ).isEmpty();
+    }
 
-        while ( pom.hasNext() )
+    /**
+     * Searches the pom re-defining the plugins to the specified versions. All the changes are made in a single pass
+     * over the pom, and give the same result as applying them one at a time in order with
+     * {@link #setPluginVersion(ModifiedPomXMLEventReader, String, String, String, String)}.
+     *
+     * @param pom The pom to modify.
+     * @param versionChanges The changes to make.
+     * @return The changes that caused a replacement, in the order they were first applied.
+     * @throws XMLStreamException if somethinh went wrong.
+     * @since 2.4
+     */
+    public static Set<VersionChange> setPluginVersions( final ModifiedPomXMLEventReader pom,
+                                                        final Collection<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        // the groupId of a plugin may be left out, so changes can only be looked up by artifactId
+        final Map<String, List<VersionChange>> changesByArtifactId = new HashMap<String, List<VersionChange>>();
+        for ( VersionChange versionChange : versionChanges )
         {
-            XMLEvent event = pom.nextEvent();
-            if ( event.isStartElement() )
+            List<VersionChange> changes = changesByArtifactId.get( versionChange.getArtifactId() );
+            if ( changes == null )
             {
-                stack.push( path );
-                final String elementName = event.asStartElement().getName().getLocalPart();
-                path = path + "/" + elementName;
+                changes = new ArrayList<VersionChange>( 1 );
+                changesByArtifactId.put( versionChange.getArtifactId(), changes );
+            }
+            changes.add( versionChange );
+        }
+        final Set<VersionChange> applied = new LinkedHashSet<VersionChange>();
+        if ( changesByArtifactId.isEmpty() )
+        {
+            return applied;
+        }
 
-                if ( matchScopeRegex.matcher( path ).matches() )
-                {
-                    // we're in a new match scope
-                    // reset any previous partial matches
-                    inMatchScope = true;
-                    pom.clearMark( 0 );
-                    pom.clearMark( 1 );
-
-                    haveGroupId = false;
-                    haveArtifactId = false;
-                    haveOldVersion = false;
-                }
-                else if ( inMatchScope && matchTargetRegex.matcher( path ).matches() )
-                {
-                    if ( "groupId".equals( elementName ) )
-                    {
-                        haveGroupId = groupId.equals( pom.getElementText().trim() );
-                        path = stack.pop();
-                    }
-                    else if ( "artifactId".equals( elementName ) )
-                    {
-                        haveArtifactId = artifactId.equals( pom.getElementText().trim() );
-                        path = stack.pop();
-                    }
-                    else if ( "version".equals( elementName ) )
-                    {
-                        pom.mark( 0 );
-                    }
-                }
+        for ( PomIndex.Element plugin : getElements( pom.getIndex(), PLUGIN_SCOPES ) )
+        {
+            final String groupId = getLastChildText( plugin, "groupId" );
+            final String artifactId = getLastChildText( plugin, "artifactId" );
+            final PomIndex.Element versionElement = plugin.getLastChild( "version" );
+            final List<VersionChange> changes = artifactId == null ? null : changesByArtifactId.get( artifactId );
+            if ( changes == null || versionElement == null )
+            {
+                continue;
             }
-            if ( event.isEndElement() )
+            // each change sees the version as left by the ones before it
+            String version = pom.getContent( versionElement ).trim();
+            boolean replaced = false;
+            for ( VersionChange change : changes )
             {
-                if ( matchTargetRegex.matcher( path ).matches()
-                    && "version".equals( event.asEndElement().getName().getLocalPart() ) )
-                {
-                    pom.mark( 1 );
-
-                    try
-                    {
-                        haveOldVersion = isVersionOverlap( oldVersion, pom.getBetween( 0, 1 ).trim() );
-                    }
-                    catch ( InvalidVersionSpecificationException e )
-                    {
-                        // fall back to string comparison
-                        haveOldVersion = oldVersion.equals( pom.getBetween( 0, 1 ).trim() );
-                    }
-                }
-                else if ( matchScopeRegex.matcher( path ).matches() )
+                if ( isPluginGroupIdMatch( change.getGroupId(), groupId )
+                    && isPluginVersionMatch( change.getOldVersion(), version ) )
                 {
-                    if ( inMatchScope && pom.hasMark( 0 ) && pom.hasMark( 1 ) && ( haveGroupId || !needGroupId )
-                        && haveArtifactId && haveOldVersion )
-                    {
-                        pom.replaceBetween( 0, 1, newVersion );
-                        madeReplacement = true;
-                        pom.clearMark( 0 );
-                        pom.clearMark( 1 );
-                        haveArtifactId = false;
-                        haveGroupId = false;
-                        haveOldVersion = false;
-                    }
-                    inMatchScope = false;
+                    version = change.getNewVersion();
+                    replaced = true;
+                    applied.add( change );
                 }
-                path = stack.pop();
+            }
+            if ( replaced )
+            {
+                pom.replaceContent( versionElement, version );
             }
         }
-        return madeReplacement;
+        return applied;
+    }
+
+    private static boolean isPluginGroupIdMatch( String groupId, String pomGroupId )
+    {
+        boolean needGroupId = groupId != null && !APACHE_MAVEN_PLUGINS_GROUPID.equals( groupId );
+        return !needGroupId || groupId.equals( pomGroupId );
+    }
+
+    private static boolean isPluginVersionMatch( String oldVersion, String pomVersion )
+    {
+        try
+        {
+            return isVersionOverlap( oldVersion, pomVersion );
+        }
+        catch ( InvalidVersionSpecificationException e )
+        {
+            // fall back to string comparison
+            return oldVersion.equals( pomVersion );
+        }
     }
 
     /**
@@ -1438,12 +1341,29 @@ public class PomHelper
      */
     public static Map<String, Model> getReactorModels( MavenProject project, Log logger )
         throws IOException
+    {
+        return getReactorModels( project, logger, null );
+    }
+
+    /**
+     * Builds a map of raw models keyed by module path, reading the modules of each aggregator in parallel. The map,
+     * and the messages logged while building it, are in the same order as when the modules are read one at a time.
+     *
+     * @param project The project to build from.
+     * @param logger The logger for logging.
+     * @param executor The threads to read the modules with, or <code>null</code> to read them one at a time.
+     * @return A map of raw models keyed by path relative to the project's basedir.
+     * @throws IOException if things go wrong.
+     * @since 2.4
+     */
+    public static Map<String, Model> getReactorModels( MavenProject project, Log logger, LookupExecutor executor )
+        throws IOException
     {
         Map<String, Model> result = new LinkedHashMap<String, Model>();
         final Model model = getRawModel( project );
         final String path = "";
         result.put( path, model );
-        result.putAll( getReactorModels( path, model, project, logger ) );
+        result.putAll( getReactorModels( path, model, project, logger, executor ) );
         return result;
     }
 
@@ -1454,10 +1374,12 @@ public class PomHelper
      * @param model The model at the relative path.
      * @param project The project to build from.
      * @param logger The logger for logging.
+     * @param executor The threads to read the modules with, or <code>null</code> to read them one at a time.
      * @return A map of raw models keyed by path relative to the project's basedir.
      * @throws IOException if things go wrong.
      */
-    private static Map<String, Model> getReactorModels( String path, Model model, MavenProject project, Log logger )
+    private static Map<String, Model> getReactorModels( String path, Model model, MavenProject project, Log logger,
+                                                        LookupExecutor executor )
         throws IOException
     {
         if ( path.length() > 0 && !path.endsWith( "/" ) )
@@ -1473,6 +1395,9 @@ public class PomHelper
 
         removeMissingChildModules( logger, baseDir, childModules );
 
+        // sibling modules are independent, so each can be read (along with its own modules) by a separate thread
+        final boolean parallel = executor != null && childModules.size() > 1;
+        final List<ModuleReader> readers = new ArrayList<ModuleReader>( childModules.size() );
         for ( String moduleName : childModules )
         {
             String modulePath = path + moduleName;
@@ -1492,23 +1417,73 @@ public class PomHelper
                 moduleProjectFile = moduleDir;
             }
 
-            try
+            readers.add( new ModuleReader( modulePath, moduleProjectFile, project,
+                                           parallel ? new BufferedLog( logger ) : logger, executor ) );
+        }
+
+        if ( parallel )
+        {
+            invokeAll( executor, readers );
+        }
+        else
+        {
+            for ( ModuleReader reader : readers )
             {
-                // the aim of this goal is to fix problems when the project cannot be parsed by Maven
-                // so we have to work with the raw model and not the interpolated parsed model from maven
-                Model moduleModel = getRawModel( moduleProjectFile );
-                result.put( modulePath, moduleModel );
-                childResults.putAll( getReactorModels( modulePath, moduleModel, project, logger ) );
+                reader.call();
             }
-            catch ( IOException e )
+        }
+
+        for ( ModuleReader reader : readers )
+        {
+            if ( parallel )
+            {
+                ( (BufferedLog) reader.logger ).flushTo( logger );
+            }
+            if ( reader.model != null )
             {
-                logger.debug( "Could not parse " + moduleProjectFile.getPath(), e );
+                result.put( reader.path, reader.model );
+                childResults.putAll( reader.childModels );
             }
         }
         result.putAll( childResults ); // more efficient update order if all children are added after siblings
         return result;
     }
 
+    private static void invokeAll( LookupExecutor executor, List<ModuleReader> readers )
+        throws IOException
+    {
+        try
+        {
+            executor.invokeAll( readers );
+        }
+        catch ( ExecutionException e )
+        {
+            final Throwable cause = e.getCause();
+            if ( cause instanceof IOException )
+            {
+                throw (IOException) cause;
+            }
+            if ( cause instanceof RuntimeException )
+            {
+                throw (RuntimeException) cause;
+            }
+            if ( cause instanceof Error )
+            {
+                throw (Error) cause;
+            }
+            IOException ioe = new IOException( cause.getMessage() );
+            ioe.initCause( cause );
+            throw ioe;
+        }
+        catch ( InterruptedException e )
+        {
+            Thread.currentThread().interrupt();
+            InterruptedIOException ioe = new InterruptedIOException( "Interrupted while reading the modules" );
+            ioe.initCause( e );
+            throw ioe;
+        }
+    }
+
     /**
      * Returns all the models that have a specified groupId and artifactId as parent.
      *
@@ -1595,7 +1570,8 @@ public class PomHelper
     }
 
     /**
-     * Reads a file into a String.
+     * Reads a file into a String. The encoding is detected from the byte order mark or XML declaration as
+     * {@link ReaderFactory#newXmlReader(File)} does.
      *
      * @param outFile The file to read.
      * @return String The content of the file.
@@ -1604,16 +1580,7 @@ public class PomHelper
     public static StringBuilder readXmlFile( File outFile )
         throws IOException
     {
-        Reader reader = ReaderFactory.newXmlReader( outFile );
-
-        try
-        {
-            return new StringBuilder( IOUtil.toString( reader ) );
-        }
-        finally
-        {
-            IOUtil.close( reader );
-        }
+        return XmlFileReader.read( outFile );
     }
 
     /**
@@ -1699,4 +1666,56 @@ public class PomHelper
         }
         return importedPOMs;
     }
+
+    /**
+     * Reads the raw model of a module and the models of its own modules.
+     */
+    private static final class ModuleReader
+        implements Callable<Void>
+    {
+        private final String path;
+
+        private final File projectFile;
+
+        private final MavenProject project;
+
+        private final Log logger;
+
+        private final LookupExecutor executor;
+
+        private Model model;
+
+        private Map<String, Model> childModels;
+
+        private ModuleReader( String path, File projectFile, MavenProject project, Log logger,
+                              LookupExecutor executor )
+        {
+            this.path = path;
+            this.projectFile = projectFile;
+            this.project = project;
+            this.logger = logger;
+            this.executor = executor;
+        }
+
+        public Void call()
+            throws IOException
+        {
+            try
+            {
+                // the aim of this goal is to fix problems when the project cannot be parsed by Maven
+                // so we have to work with the raw model and not the interpolated parsed model from maven
+                model = getRawModel( projectFile );
+                childModels = getReactorModels( path, model, project, logger, executor );
+            }
+            catch ( IOException e )
+            {
+                logger.debug( "Could not parse " + projectFile.getPath(), e );
+                if ( childModels == null )
+                {
+                    childModels = Collections.emptyMap();
+                }
+            }
+            return null;
+        }
+    }
 }
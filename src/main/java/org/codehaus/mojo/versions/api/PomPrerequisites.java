@@ -0,0 +1,341 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.resolver.ArtifactNotFoundException;
+import org.apache.maven.artifact.resolver.ArtifactResolutionException;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.model.Prerequisites;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.versions.rewriting.XMLInputFactories;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.StringUtils;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The parts of a pom needed to work out the version of Maven it requires: its <code>prerequisites</code>, its parent
+ * and its properties. They are read by streaming through the pom, without building a model of it, so reading them
+ * costs far less than building the project.
+ *
+ * @since 2.4
+ */
+public final class PomPrerequisites
+{
+    /**
+     * The version of Maven required by a pom that has no prerequisites anywhere in its parent chain.
+     */
+    public static final String DEFAULT_MAVEN_VERSION = "2.0";
+
+    /**
+     * How far to follow the parents of a pom when working out the version of Maven it requires.
+     */
+    static final int MAX_PARENT_DEPTH = 16;
+
+    /**
+     * How many times to interpolate the required version of Maven, for properties that refer to other properties.
+     */
+    private static final int MAX_INTERPOLATION_ROUNDS = 8;
+
+    /**
+     * Resolves the parents of a pom.
+     */
+    public interface ParentResolver
+    {
+        /**
+         * Resolves a parent pom.
+         *
+         * @param groupId The groupId of the parent.
+         * @param artifactId The artifactId of the parent.
+         * @param version The version of the parent.
+         * @return The parent pom.
+         * @throws ArtifactResolutionException if the parent could not be resolved.
+         * @throws ArtifactNotFoundException if the parent could not be found.
+         */
+        File resolveParent( String groupId, String artifactId, String version )
+            throws ArtifactResolutionException, ArtifactNotFoundException;
+    }
+
+    private String mavenVersion;
+
+    private String parentGroupId;
+
+    private String parentArtifactId;
+
+    private String parentVersion;
+
+    private final Map<String, String> properties = new LinkedHashMap<String, String>();
+
+    private PomPrerequisites()
+    {
+    }
+
+    /**
+     * Reads the prerequisites, parent and properties of a pom.
+     *
+     * @param pomFile The pom.
+     * @return The prerequisites, parent and properties of the pom.
+     * @throws IOException if the pom could not be read.
+     * @throws XMLStreamException if the pom is not well formed.
+     */
+    public static PomPrerequisites read( File pomFile )
+        throws IOException, XMLStreamException
+    {
+        final InputStream in = new FileInputStream( pomFile );
+        try
+        {
+            return read( in );
+        }
+        finally
+        {
+            IOUtil.close( in );
+        }
+    }
+
+    /**
+     * Reads the prerequisites, parent and properties of a pom.
+     *
+     * @param in The pom.
+     * @return The prerequisites, parent and properties of the pom.
+     * @throws XMLStreamException if the pom is not well formed.
+     */
+    public static PomPrerequisites read( InputStream in )
+        throws XMLStreamException
+    {
+        final PomPrerequisites result = new PomPrerequisites();
+        final XMLStreamReader reader = XMLInputFactories.getInputFactory().createXMLStreamReader( in );
+        try
+        {
+            // the names of the enclosing elements below the project
+            String section = null;
+            int depth = 0;
+            while ( reader.hasNext() )
+            {
+                final int event = reader.next();
+                if ( event == XMLStreamConstants.END_ELEMENT )
+                {
+                    depth--;
+                }
+                else if ( event == XMLStreamConstants.START_ELEMENT )
+                {
+                    depth++;
+                    if ( depth == 2 )
+                    {
+                        section = reader.getLocalName();
+                    }
+                    else if ( depth == 3 )
+                    {
+                        final String name = reader.getLocalName();
+                        if ( "prerequisites".equals( section ) && "maven".equals( name ) )
+                        {
+                            result.mavenVersion = reader.getElementText().trim();
+                            depth--;
+                        }
+                        else if ( "parent".equals( section ) && ( "groupId".equals( name )
+                            || "artifactId".equals( name ) || "version".equals( name ) ) )
+                        {
+                            final String value = reader.getElementText().trim();
+                            depth--;
+                            if ( "groupId".equals( name ) )
+                            {
+                                result.parentGroupId = value;
+                            }
+                            else if ( "artifactId".equals( name ) )
+                            {
+                                result.parentArtifactId = value;
+                            }
+                            else
+                            {
+                                result.parentVersion = value;
+                            }
+                        }
+                        else if ( "properties".equals( section ) )
+                        {
+                            result.properties.put( name, reader.getElementText().trim() );
+                            depth--;
+                        }
+                    }
+                }
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return result;
+    }
+
+    /**
+     * Works out the version of Maven that a pom requires from the nearest prerequisites in its parent chain, as Maven
+     * inherits them, reading the parents only when needed. Properties are taken from the pom first and then from its
+     * parents, nearest first.
+     *
+     * @param pomFile The pom.
+     * @param resolver Resolves the parents of the pom.
+     * @return The version of Maven required, {@link #DEFAULT_MAVEN_VERSION} if there are no prerequisites, or
+     *         <code>null</code> if it cannot be worked out without building the project, such as when the
+     *         prerequisites refer to something other than a property of the poms.
+     * @throws ArtifactResolutionException if a parent could not be resolved.
+     * @throws ArtifactNotFoundException if a parent could not be found.
+     * @see #getRequiredMavenVersion(MavenProject)
+     */
+    public static String getRequiredMavenVersion( File pomFile, ParentResolver resolver )
+        throws ArtifactResolutionException, ArtifactNotFoundException
+    {
+        final Map<String, String> properties = new HashMap<String, String>();
+        String mavenVersion = null;
+        File file = pomFile;
+        for ( int depth = 0; ; depth++ )
+        {
+            final PomPrerequisites pom;
+            try
+            {
+                pom = read( file );
+            }
+            catch ( IOException e )
+            {
+                return null;
+            }
+            catch ( XMLStreamException e )
+            {
+                return null;
+            }
+            for ( Map.Entry<String, String> property : pom.getProperties().entrySet() )
+            {
+                if ( !properties.containsKey( property.getKey() ) )
+                {
+                    properties.put( property.getKey(), property.getValue() );
+                }
+            }
+            if ( mavenVersion == null && StringUtils.isNotEmpty( pom.getMavenVersion() ) )
+            {
+                mavenVersion = pom.getMavenVersion();
+            }
+            if ( mavenVersion != null )
+            {
+                final String interpolated = interpolate( mavenVersion, properties );
+                if ( interpolated.indexOf( "${" ) < 0 )
+                {
+                    return new DefaultArtifactVersion( interpolated ).toString();
+                }
+                // keep looking for the properties in the parents
+            }
+            if ( !pom.hasParent() )
+            {
+                return mavenVersion == null ? DEFAULT_MAVEN_VERSION : null;
+            }
+            if ( depth == MAX_PARENT_DEPTH )
+            {
+                return null;
+            }
+            file = resolver.resolveParent( pom.getParentGroupId(), pom.getParentArtifactId(), pom.getParentVersion() );
+        }
+    }
+
+    /**
+     * Works out the version of Maven that a built project requires from the nearest prerequisites in its parent
+     * chain, the same way as {@link #getRequiredMavenVersion(File, ParentResolver)} does for a pom.
+     *
+     * @param project The project.
+     * @return The version of Maven required, or {@link #DEFAULT_MAVEN_VERSION} if there are no prerequisites.
+     */
+    public static String getRequiredMavenVersion( MavenProject project )
+    {
+        for ( MavenProject p = project; p != null; p = p.getParent() )
+        {
+            final Prerequisites prerequisites = p.getPrerequisites();
+            if ( prerequisites != null && StringUtils.isNotEmpty( prerequisites.getMaven() ) )
+            {
+                return new DefaultArtifactVersion( prerequisites.getMaven().trim() ).toString();
+            }
+        }
+        return DEFAULT_MAVEN_VERSION;
+    }
+
+    private static String interpolate( String value, Map<String, String> properties )
+    {
+        String result = value;
+        for ( int i = 0; i < MAX_INTERPOLATION_ROUNDS && result.indexOf( "${" ) >= 0; i++ )
+        {
+            final String interpolated = StringUtils.interpolate( result, properties );
+            if ( interpolated.equals( result ) )
+            {
+                break;
+            }
+            result = interpolated;
+        }
+        return result;
+    }
+
+    /**
+     * Returns the version of Maven given by the pom's own prerequisites, as written in the pom.
+     *
+     * @return The version of Maven, or <code>null</code> if the pom has no prerequisites.
+     */
+    public String getMavenVersion()
+    {
+        return mavenVersion;
+    }
+
+    /**
+     * Checks whether the pom has a parent.
+     *
+     * @return <code>true</code> if the pom names a parent.
+     */
+    public boolean hasParent()
+    {
+        return parentGroupId != null && parentArtifactId != null && parentVersion != null;
+    }
+
+    public String getParentGroupId()
+    {
+        return parentGroupId;
+    }
+
+    public String getParentArtifactId()
+    {
+        return parentArtifactId;
+    }
+
+    public String getParentVersion()
+    {
+        return parentVersion;
+    }
+
+    /**
+     * Returns the properties defined in the pom itself.
+     *
+     * @return The properties keyed by name.
+     */
+    public Map<String, String> getProperties()
+    {
+        return Collections.unmodifiableMap( properties );
+    }
+}
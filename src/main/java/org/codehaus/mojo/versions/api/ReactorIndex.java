@@ -0,0 +1,183 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The models of a reactor, keyed by path, indexed by their groupId and artifactId and by those of their parent, so
+ * that {@link PomHelper#getModelEntry(Map, String, String)}, {@link PomHelper#getChildModels(Map, String, String)}
+ * and {@link PomHelper#getReactorParentCount(Map, Model)} need not scan the whole reactor. Each gives the same
+ * answer as the {@link PomHelper} method over the reactor the index was built from.
+ * <p>
+ * The index holds on to the models, so changes to their versions are seen, but it must be built again if the reactor
+ * itself or the coordinates of a model change.
+ * </p>
+ *
+ * @since 2.4
+ */
+public final class ReactorIndex
+{
+    private final Map<String, Model> reactor;
+
+    /**
+     * The first entry of the reactor with each <code>groupId:artifactId</code>.
+     */
+    private final Map<String, Map.Entry<String, Model>> entriesByKey = new HashMap<String, Map.Entry<String, Model>>();
+
+    /**
+     * The models keyed by path, keyed by the <code>groupId:artifactId</code> of their parent.
+     */
+    private final Map<String, Map<String, Model>> childrenByKey = new HashMap<String, Map<String, Model>>();
+
+    /**
+     * The number of parents each model has in the reactor, keyed by path.
+     */
+    private final Map<String, Integer> depthsByPath = new HashMap<String, Integer>();
+
+    /**
+     * Indexes a reactor.
+     *
+     * @param reactor The map of models keyed by path.
+     */
+    public ReactorIndex( Map<String, Model> reactor )
+    {
+        this.reactor = reactor;
+        for ( Map.Entry<String, Model> entry : reactor.entrySet() )
+        {
+            final Model model = entry.getValue();
+            final String key = getKey( PomHelper.getGroupId( model ), PomHelper.getArtifactId( model ) );
+            if ( key != null && !entriesByKey.containsKey( key ) )
+            {
+                entriesByKey.put( key, entry );
+            }
+            final Parent parent = model.getParent();
+            final String parentKey = parent == null ? null : getKey( parent.getGroupId(), parent.getArtifactId() );
+            if ( parentKey != null )
+            {
+                Map<String, Model> children = childrenByKey.get( parentKey );
+                if ( children == null )
+                {
+                    children = new LinkedHashMap<String, Model>();
+                    childrenByKey.put( parentKey, children );
+                }
+                children.put( entry.getKey(), model );
+            }
+        }
+        for ( Map.Entry<String, Model> entry : reactor.entrySet() )
+        {
+            getDepth( entry.getKey(), entry.getValue() );
+        }
+    }
+
+    private static String getKey( String groupId, String artifactId )
+    {
+        return groupId == null || artifactId == null ? null : groupId + ':' + artifactId;
+    }
+
+    private int getDepth( String path, Model model )
+    {
+        final Integer known = depthsByPath.get( path );
+        if ( known != null )
+        {
+            return known.intValue();
+        }
+        // guards against parents that loop back to the model
+        depthsByPath.put( path, Integer.valueOf( 0 ) );
+        int depth = 0;
+        if ( model.getParent() != null )
+        {
+            final Map.Entry<String, Model> parent =
+                getModelEntry( model.getParent().getGroupId(), model.getParent().getArtifactId() );
+            if ( parent != null )
+            {
+                depth = getDepth( parent.getKey(), parent.getValue() ) + 1;
+            }
+        }
+        depthsByPath.put( path, Integer.valueOf( depth ) );
+        return depth;
+    }
+
+    /**
+     * Returns the reactor that was indexed.
+     *
+     * @return The map of models keyed by path.
+     */
+    public Map<String, Model> getModels()
+    {
+        return Collections.unmodifiableMap( reactor );
+    }
+
+    /**
+     * Returns all the models that have a specified groupId and artifactId as parent.
+     *
+     * @param groupId The groupId of the parent.
+     * @param artifactId The artifactId of the parent.
+     * @return a map of models that have a specified groupId and artifactId as parent keyed by path.
+     */
+    public Map<String, Model> getChildModels( String groupId, String artifactId )
+    {
+        final Map<String, Model> children = childrenByKey.get( getKey( groupId, artifactId ) );
+        return children == null ? Collections.<String, Model>emptyMap() : Collections.unmodifiableMap( children );
+    }
+
+    /**
+     * Returns the model that has the specified groupId and artifactId or <code>null</code> if no such model exists.
+     *
+     * @param groupId The groupId to match.
+     * @param artifactId The artifactId to match.
+     * @return The model or <code>null</code> if the model was not in the reactor.
+     */
+    public Model getModel( String groupId, String artifactId )
+    {
+        final Map.Entry<String, Model> entry = getModelEntry( groupId, artifactId );
+        return entry == null ? null : entry.getValue();
+    }
+
+    /**
+     * Returns the model that has the specified groupId and artifactId or <code>null</code> if no such model exists.
+     *
+     * @param groupId The groupId to match.
+     * @param artifactId The artifactId to match.
+     * @return The model entry or <code>null</code> if the model was not in the reactor.
+     */
+    public Map.Entry<String, Model> getModelEntry( String groupId, String artifactId )
+    {
+        return entriesByKey.get( getKey( groupId, artifactId ) );
+    }
+
+    /**
+     * Returns a count of how many parents the model with the specified path has in the reactor.
+     *
+     * @param path The path of the model.
+     * @return The number of parents of the model in the reactor, or <code>0</code> if it is not in the reactor.
+     */
+    public int getReactorParentCount( String path )
+    {
+        final Integer depth = depthsByPath.get( path );
+        return depth == null ? 0 : depth.intValue();
+    }
+}
@@ -0,0 +1,266 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.mojo.versions.model.Rule;
+import org.codehaus.mojo.versions.utils.RegexUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * The rules of a {@link org.codehaus.mojo.versions.model.RuleSet}, compiled once so that the best fitting rule for an
+ * artifact can be found without compiling any patterns or visiting every rule.
+ * <p>
+ * Rules are bucketed by the literal part of their groupId that precedes the first wildcard. Only the rules in the
+ * buckets keyed by a prefix of the artifact's groupId can match it, and a rule whose groupId does not match never
+ * affects which rule is chosen, so running the selection over just those rules (in their original order) picks the
+ * same rule as running it over all of them.
+ * </p>
+ *
+ * @since 2.4
+ */
+final class RuleIndex
+{
+    /**
+     * The compiled rules, keyed by the literal prefix of their groupId.
+     */
+    private final Map<String, List<CompiledRule>> rulesByGroupIdPrefix = new HashMap<String, List<CompiledRule>>();
+
+    /**
+     * The length of the longest literal groupId prefix, no longer prefixes need to be looked up.
+     */
+    private int maxPrefixLength;
+
+    /**
+     * Compiles the rules.
+     *
+     * @param rules the rules, in the order they were defined.
+     */
+    RuleIndex( List<Rule> rules )
+    {
+        int index = 0;
+        for ( Rule rule : rules )
+        {
+            CompiledRule compiled = new CompiledRule( index++, rule );
+            String prefix = getLiteralPrefix( rule.getGroupId() );
+            List<CompiledRule> bucket = rulesByGroupIdPrefix.get( prefix );
+            if ( bucket == null )
+            {
+                bucket = new ArrayList<CompiledRule>( 1 );
+                rulesByGroupIdPrefix.put( prefix, bucket );
+            }
+            bucket.add( compiled );
+            maxPrefixLength = Math.max( maxPrefixLength, prefix.length() );
+        }
+    }
+
+    /**
+     * Find the rule, if any, which best fits the artifact details given.
+     *
+     * @param groupId Group id of the artifact
+     * @param artifactId Artifact id of the artifact
+     * @return Rule which best describes the given artifact
+     */
+    Rule getBestFitRule( String groupId, String artifactId )
+    {
+        final List<CompiledRule> candidates = getCandidates( groupId );
+        CompiledRule bestFit = null;
+        int bestGroupIdScore = Integer.MAX_VALUE;
+        int bestArtifactIdScore = Integer.MAX_VALUE;
+        boolean exactGroupId = false;
+        boolean exactArtifactId = false;
+        for ( CompiledRule rule : candidates )
+        {
+            int groupIdScore = rule.groupIdScore;
+            if ( groupIdScore > bestGroupIdScore )
+            {
+                continue;
+            }
+            boolean exactMatch = rule.groupId.exactMatch( groupId );
+            boolean match = exactMatch || rule.groupId.match( groupId );
+            if ( !match || ( exactGroupId && !exactMatch ) )
+            {
+                continue;
+            }
+            if ( bestGroupIdScore > groupIdScore )
+            {
+                bestArtifactIdScore = Integer.MAX_VALUE;
+                exactArtifactId = false;
+            }
+            bestGroupIdScore = groupIdScore;
+            if ( exactMatch && !exactGroupId )
+            {
+                exactGroupId = true;
+                bestArtifactIdScore = Integer.MAX_VALUE;
+                exactArtifactId = false;
+            }
+            int artifactIdScore = rule.artifactIdScore;
+            if ( artifactIdScore > bestArtifactIdScore )
+            {
+                continue;
+            }
+            exactMatch = rule.artifactId.exactMatch( artifactId );
+            match = exactMatch || rule.artifactId.match( artifactId );
+            if ( !match || ( exactArtifactId && !exactMatch ) )
+            {
+                continue;
+            }
+            bestArtifactIdScore = artifactIdScore;
+            if ( exactMatch && !exactArtifactId )
+            {
+                exactArtifactId = true;
+            }
+            bestFit = rule;
+        }
+        return bestFit == null ? null : bestFit.rule;
+    }
+
+    /**
+     * Returns the rules that may match the groupId, in the order they were defined.
+     *
+     * @param groupId the groupId.
+     * @return the rules that may match the groupId.
+     */
+    private List<CompiledRule> getCandidates( String groupId )
+    {
+        List<CompiledRule> candidates = null;
+        boolean sorted = true;
+        final int maxLength = Math.min( groupId.length(), maxPrefixLength );
+        for ( int length = 0; length <= maxLength; length++ )
+        {
+            List<CompiledRule> bucket = rulesByGroupIdPrefix.get( groupId.substring( 0, length ) );
+            if ( bucket == null )
+            {
+                continue;
+            }
+            if ( candidates == null )
+            {
+                candidates = new ArrayList<CompiledRule>( bucket );
+            }
+            else
+            {
+                sorted = false;
+                candidates.addAll( bucket );
+            }
+        }
+        if ( candidates == null )
+        {
+            return Collections.emptyList();
+        }
+        if ( !sorted )
+        {
+            Collections.sort( candidates );
+        }
+        return candidates;
+    }
+
+    private static String getLiteralPrefix( String wildcardRule )
+    {
+        for ( int i = 0; i < wildcardRule.length(); i++ )
+        {
+            char c = wildcardRule.charAt( i );
+            if ( c == '?' || c == '*' )
+            {
+                return wildcardRule.substring( 0, i );
+            }
+        }
+        return wildcardRule;
+    }
+
+    /**
+     * A rule with its wildcard scores and matchers worked out.
+     */
+    private static final class CompiledRule
+        implements Comparable<CompiledRule>
+    {
+        private final int index;
+
+        private final Rule rule;
+
+        private final int groupIdScore;
+
+        private final int artifactIdScore;
+
+        private final WildcardMatcher groupId;
+
+        private final WildcardMatcher artifactId;
+
+        private CompiledRule( int index, Rule rule )
+        {
+            this.index = index;
+            this.rule = rule;
+            this.groupIdScore = RegexUtils.getWildcardScore( rule.getGroupId() );
+            this.artifactIdScore = RegexUtils.getWildcardScore( rule.getArtifactId() );
+            this.groupId = new WildcardMatcher( rule.getGroupId() );
+            this.artifactId = new WildcardMatcher( rule.getArtifactId() );
+        }
+
+        public int compareTo( CompiledRule o )
+        {
+            return index < o.index ? -1 : ( index == o.index ? 0 : 1 );
+        }
+    }
+
+    /**
+     * Matches values against a wildcard rule, either in full or as a prefix.
+     */
+    private static final class WildcardMatcher
+    {
+        /**
+         * The rule, if it has no wildcards, otherwise <code>null</code>.
+         */
+        private final String literal;
+
+        private final Pattern exactPattern;
+
+        private final Pattern pattern;
+
+        private WildcardMatcher( String wildcardRule )
+        {
+            if ( getLiteralPrefix( wildcardRule ).length() == wildcardRule.length() )
+            {
+                literal = wildcardRule;
+                exactPattern = null;
+                pattern = null;
+            }
+            else
+            {
+                literal = null;
+                exactPattern = Pattern.compile( RegexUtils.convertWildcardsToRegex( wildcardRule, true ) );
+                pattern = Pattern.compile( RegexUtils.convertWildcardsToRegex( wildcardRule, false ) );
+            }
+        }
+
+        private boolean exactMatch( String value )
+        {
+            return literal != null ? literal.equals( value ) : exactPattern.matcher( value ).matches();
+        }
+
+        private boolean match( String value )
+        {
+            return literal != null ? value.startsWith( literal ) : pattern.matcher( value ).matches();
+        }
+    }
+}
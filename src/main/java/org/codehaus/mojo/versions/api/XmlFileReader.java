@@ -0,0 +1,239 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.IllegalCharsetNameException;
+import java.nio.charset.UnsupportedCharsetException;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Reads XML files into a {@link StringBuilder}. The file is read in one go, its encoding is worked out from the byte
+ * order mark or XML declaration as {@link ReaderFactory#newXmlReader(File)} would, and it is decoded straight into a
+ * buffer sized from the length of the file. Anything unusual, such as UTF-16 or a byte order mark that disagrees with
+ * the declaration, is left to {@link ReaderFactory#newXmlReader(File)}.
+ *
+ * @since 2.4
+ */
+final class XmlFileReader
+{
+    private static final String UTF_8 = "UTF-8";
+
+    private static final byte[] UTF_8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private static final byte[] XML_DECLARATION_START = { '<', '?', 'x', 'm', 'l' };
+
+    /**
+     * How much of the file to look at for the XML declaration.
+     */
+    private static final int MAX_DECLARATION_LENGTH = 4096;
+
+    private static final Pattern ENCODING =
+        Pattern.compile( "\\sencoding\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')" );
+
+    private XmlFileReader()
+    {
+    }
+
+    /**
+     * Reads an XML file.
+     *
+     * @param file The file to read.
+     * @return The content of the file.
+     * @throws IOException when things go wrong.
+     */
+    static StringBuilder read( File file )
+        throws IOException
+    {
+        final ByteBuffer bytes = readBytes( file );
+        final Charset charset = getCharset( bytes );
+        if ( charset == null )
+        {
+            return readWithReader( file );
+        }
+        final CharsetDecoder decoder = charset.newDecoder().onMalformedInput( CodingErrorAction.REPLACE )
+            .onUnmappableCharacter( CodingErrorAction.REPLACE );
+        final char[] chars = new char[(int) Math.ceil( bytes.remaining() * (double) decoder.maxCharsPerByte() )];
+        final CharBuffer out = CharBuffer.wrap( chars );
+        decoder.decode( bytes, out, true );
+        decoder.flush( out );
+        final StringBuilder result = new StringBuilder( out.position() );
+        result.append( chars, 0, out.position() );
+        return result;
+    }
+
+    private static ByteBuffer readBytes( File file )
+        throws IOException
+    {
+        final FileInputStream input = new FileInputStream( file );
+        try
+        {
+            final FileChannel channel = input.getChannel();
+            final long size = channel.size();
+            if ( size > Integer.MAX_VALUE )
+            {
+                throw new IOException( file + " is too large" );
+            }
+            final ByteBuffer bytes = ByteBuffer.allocate( (int) size );
+            while ( bytes.hasRemaining() && channel.read( bytes ) >= 0 )
+            {
+                // keep reading
+            }
+            bytes.flip();
+            return bytes;
+        }
+        finally
+        {
+            input.close();
+        }
+    }
+
+    /**
+     * Works out the encoding of the content, skipping any byte order mark.
+     *
+     * @param bytes The content.
+     * @return The encoding, or <code>null</code> if the content should be read with
+     *         {@link ReaderFactory#newXmlReader(File)}.
+     */
+    private static Charset getCharset( ByteBuffer bytes )
+    {
+        final boolean bom = startsWith( bytes, UTF_8_BOM );
+        if ( bom )
+        {
+            bytes.position( bytes.position() + UTF_8_BOM.length );
+        }
+        else if ( bytes.remaining() >= 2 && ( bytes.get( 0 ) == 0 || bytes.get( 1 ) == 0
+            || ( bytes.get( 0 ) & 0xFF ) >= 0xFE || ( bytes.get( 1 ) & 0xFF ) >= 0xFE ) )
+        {
+            // UTF-16 or UTF-32
+            return null;
+        }
+        final String declared = getDeclaredEncoding( bytes );
+        if ( declared == null )
+        {
+            return Charset.forName( UTF_8 );
+        }
+        final Charset charset;
+        try
+        {
+            charset = Charset.forName( declared );
+        }
+        catch ( IllegalCharsetNameException e )
+        {
+            return null;
+        }
+        catch ( UnsupportedCharsetException e )
+        {
+            return null;
+        }
+        if ( bom ? !UTF_8.equals( charset.name() ) : !isAsciiCompatible( charset ) )
+        {
+            return null;
+        }
+        return charset;
+    }
+
+    private static String getDeclaredEncoding( ByteBuffer bytes )
+    {
+        if ( !startsWith( bytes, XML_DECLARATION_START ) )
+        {
+            return null;
+        }
+        final int start = bytes.position();
+        final int limit = Math.min( bytes.limit(), start + MAX_DECLARATION_LENGTH );
+        final StringBuilder declaration = new StringBuilder();
+        for ( int i = start; i < limit; i++ )
+        {
+            final char c = (char) ( bytes.get( i ) & 0xFF );
+            declaration.append( c );
+            if ( c == '>' )
+            {
+                final Matcher matcher = ENCODING.matcher( declaration );
+                if ( !matcher.find() )
+                {
+                    return null;
+                }
+                return matcher.group( 1 ) != null ? matcher.group( 1 ) : matcher.group( 2 );
+            }
+        }
+        return null;
+    }
+
+    private static boolean isAsciiCompatible( Charset charset )
+    {
+        if ( !charset.canEncode() )
+        {
+            return false;
+        }
+        final String ascii = "<?xml version encoding='\"-_.:0123456789AZaz>\n";
+        try
+        {
+            return Arrays.equals( ascii.getBytes( "US-ASCII" ), ascii.getBytes( charset.name() ) );
+        }
+        catch ( IOException e )
+        {
+            return false;
+        }
+    }
+
+    private static boolean startsWith( ByteBuffer bytes, byte[] prefix )
+    {
+        if ( bytes.remaining() < prefix.length )
+        {
+            return false;
+        }
+        for ( int i = 0; i < prefix.length; i++ )
+        {
+            if ( bytes.get( bytes.position() + i ) != prefix[i] )
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static StringBuilder readWithReader( File file )
+        throws IOException
+    {
+        Reader reader = ReaderFactory.newXmlReader( file );
+        try
+        {
+            return new StringBuilder( IOUtil.toString( reader ) );
+        }
+        finally
+        {
+            IOUtil.close( reader );
+        }
+    }
+}
@@ -23,6 +23,9 @@ import org.apache.maven.model.Model;
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
+import javax.xml.stream.XMLStreamException;
+import java.util.List;
+
 /**
  * Created by IntelliJ IDEA.
  *
@@ -55,6 +58,22 @@ public abstract class AbstractVersionChanger
         return pom;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Applies the changes one at a time. Changers that rewrite the pom once per change should override this to make
+     * all the changes in one pass.
+     * </p>
+     */
+    public void applyAll( List<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChange versionChange : versionChanges )
+        {
+            apply( versionChange );
+        }
+    }
+
     public void info( CharSequence charSequence )
     {
         log.info( charSequence );
@@ -53,4 +53,20 @@ public class CompositeVersionChanger
             delegate.apply( versionChange );
         }
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Each delegate applies all the changes in turn. The delegates rewrite different parts of the pom, so this gives
+     * the same result as applying each change to every delegate.
+     * </p>
+     */
+    public void applyAll( List<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        for ( VersionChanger delegate : composites )
+        {
+            delegate.applyAll( versionChanges );
+        }
+    }
 }
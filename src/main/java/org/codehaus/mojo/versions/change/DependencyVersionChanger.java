@@ -25,6 +25,8 @@ import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 
 import javax.xml.stream.XMLStreamException;
+import java.util.List;
+import java.util.Set;
 
 /**
  * Created by IntelliJ IDEA.
@@ -51,4 +53,24 @@ public class DependencyVersionChanger
             info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
         }
     }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Makes all the changes in a single pass over the pom.
+     * </p>
+     */
+    public void applyAll( List<VersionChange> versionChanges )
+        throws XMLStreamException
+    {
+        final Set<VersionChange> applied = PomHelper.setDependencyVersions( getPom(), versionChanges );
+        for ( VersionChange versionChange : versionChanges )
+        {
+            if ( applied.remove( versionChange ) )
+            {
+                info( "    Updating dependency " + versionChange.getGroupId() + ":" + versionChange.getArtifactId() );
+                info( "        from version " + versionChange.getOldVersion() + " to " + versionChange.getNewVersion() );
+            }
+        }
+    }
 }
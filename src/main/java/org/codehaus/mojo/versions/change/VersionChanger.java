@@ -20,6 +20,7 @@ package org.codehaus.mojo.versions.change;
  */
 
 import javax.xml.stream.XMLStreamException;
+import java.util.List;
 
 /**
  * Created by IntelliJ IDEA.
@@ -31,4 +32,14 @@ public interface VersionChanger
 {
     void apply( VersionChange versionChange )
         throws XMLStreamException;
+
+    /**
+     * Applies all the changes, with the same result as applying them one at a time in order.
+     *
+     * @param versionChanges the changes.
+     * @throws XMLStreamException if the pom could not be rewritten.
+     * @since 2.4
+     */
+    void applyAll( List<VersionChange> versionChanges )
+        throws XMLStreamException;
 }
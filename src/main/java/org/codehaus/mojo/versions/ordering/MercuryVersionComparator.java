@@ -24,6 +24,8 @@ import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 
 import java.math.BigInteger;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A comparator which uses Mercury's version rules.
@@ -36,12 +38,47 @@ public class MercuryVersionComparator
 {
     private static final BigInteger BIG_INTEGER_ONE = new BigInteger( "1" );
 
+    /**
+     * The most parsed versions that are kept before the cache is emptied.
+     *
+     * @since 2.4
+     */
+    private static final int MAX_PARSED_VERSIONS = 10000;
+
+    /**
+     * The parsed form of recently compared versions, keyed by version string, so that sorting parses each version
+     * once rather than on every comparison. The parsed versions are never handed out, so they cannot be modified.
+     *
+     * @since 2.4
+     */
+    private static final ConcurrentMap<String, ComparableVersion> PARSED_VERSIONS =
+        new ConcurrentHashMap<String, ComparableVersion>();
+
     /**
      * {@inheritDoc}
      */
     public int compare( ArtifactVersion o1, ArtifactVersion o2 )
     {
-        return new ComparableVersion( o1.toString() ).compareTo( new ComparableVersion( o2.toString() ) );
+        return parse( o1.toString() ).compareTo( parse( o2.toString() ) );
+    }
+
+    private static ComparableVersion parse( String version )
+    {
+        ComparableVersion parsed = PARSED_VERSIONS.get( version );
+        if ( parsed == null )
+        {
+            if ( PARSED_VERSIONS.size() >= MAX_PARSED_VERSIONS )
+            {
+                PARSED_VERSIONS.clear();
+            }
+            parsed = new ComparableVersion( version );
+            ComparableVersion existing = PARSED_VERSIONS.putIfAbsent( version, parsed );
+            if ( existing != null )
+            {
+                parsed = existing;
+            }
+        }
+        return parsed;
     }
 
     protected int innerGetSegmentCount( ArtifactVersion v )
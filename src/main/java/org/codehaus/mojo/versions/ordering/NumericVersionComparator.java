@@ -35,119 +35,257 @@ import java.util.StringTokenizer;
 public class NumericVersionComparator
     extends AbstractVersionComparator
 {
-    private static final BigInteger BIG_INTEGER_ZERO = new BigInteger( "0" );
-
     private static final BigInteger BIG_INTEGER_ONE = new BigInteger( "1" );
 
+    /**
+     * The most digits that a segment can have and still be sure to fit in a <code>long</code>.
+     */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /**
+     * A segment made only of the ASCII digits <code>0</code> to <code>9</code>.
+     */
+    private static final int DIGITS = 0;
+
+    /**
+     * A segment that {@link BigInteger} might parse, such as one with a sign or with non-ASCII digits.
+     */
+    private static final int MAYBE_NUMBER = 1;
+
+    /**
+     * A segment that is certainly not a number.
+     */
+    private static final int NOT_NUMBER = 2;
+
+    /**
+     * Returned by {@link #signum(String, int, int)} for a segment that is not a number. It is distinct from the kinds
+     * of segment so that the two cannot be mistaken for each other.
+     */
+    private static final int NO_SIGNUM = Integer.MIN_VALUE;
+
     /**
      * {@inheritDoc}
+     * <p>
+     * The version strings are scanned in place: segments of digits are compared as <code>long</code>s, and only
+     * segments too long to fit (or that only {@link BigInteger} can tell are numbers) are parsed as
+     * {@link BigInteger}s.
+     * </p>
      */
     public int compare( ArtifactVersion o1, ArtifactVersion o2 )
     {
-        String v1 = o1.toString();
-        String v2 = o2.toString();
-        StringTokenizer tok1 = new StringTokenizer( v1, "." );
-        StringTokenizer tok2 = new StringTokenizer( v2, "." );
-        while ( tok1.hasMoreTokens() && tok2.hasMoreTokens() )
+        final String v1 = o1.toString();
+        final String v2 = o2.toString();
+        int start1 = skipDots( v1, 0 );
+        int start2 = skipDots( v2, 0 );
+        while ( start1 < v1.length() && start2 < v2.length() )
         {
-            String p1 = tok1.nextToken();
-            String p2 = tok2.nextToken();
-            String q1 = null;
-            String q2 = null;
-            if ( p1.indexOf( '-' ) >= 0 )
-            {
-                int index = p1.indexOf( '-' );
-                q1 = p1.substring( index );
-                p1 = p1.substring( 0, index );
-            }
-            if ( p2.indexOf( '-' ) >= 0 )
-            {
-                int index = p2.indexOf( '-' );
-                q2 = p2.substring( index );
-                p2 = p2.substring( 0, index );
-            }
-            try
-            {
-                BigInteger n1 = new BigInteger( p1 );
-                BigInteger n2 = new BigInteger( p2 );
-                int result = n1.compareTo( n2 );
-                if ( result != 0 )
-                {
-                    return result;
-                }
-            }
-            catch ( NumberFormatException e )
+            final int end1 = indexOf( v1, '.', start1, v1.length() );
+            final int end2 = indexOf( v2, '.', start2, v2.length() );
+            final int dash1 = indexOf( v1, '-', start1, end1 );
+            final int dash2 = indexOf( v2, '-', start2, end2 );
+            int result = compareSegments( v1, start1, dash1, v2, start2, dash2 );
+            if ( result != 0 )
             {
-                int result = p1.compareTo( p2 );
-                if ( result != 0 )
-                {
-                    return result;
-                }
+                return result;
             }
-            if ( q1 != null && q2 != null )
+            final boolean qualifier1 = dash1 < end1;
+            final boolean qualifier2 = dash2 < end2;
+            if ( qualifier1 && qualifier2 )
             {
-                final int result = q1.compareTo( q2 );
+                result = compareChars( v1, dash1, end1, v2, dash2, end2 );
                 if ( result != 0 )
                 {
                     return result;
                 }
             }
-            if ( q1 != null )
+            if ( qualifier1 )
             {
                 return -1;
             }
-            if ( q2 != null )
+            if ( qualifier2 )
             {
                 return +1;
             }
+            start1 = skipDots( v1, end1 );
+            start2 = skipDots( v2, end2 );
         }
-        if ( tok1.hasMoreTokens() )
+        if ( start1 < v1.length() )
         {
-            BigInteger n2 = BIG_INTEGER_ZERO;
-            while ( tok1.hasMoreTokens() )
+            while ( start1 < v1.length() )
             {
-                try
-                {
-                    BigInteger n1 = new BigInteger( tok1.nextToken() );
-                    int result = n1.compareTo( n2 );
-                    if ( result != 0 )
-                    {
-                        return result;
-                    }
-                }
-                catch ( NumberFormatException e )
+                final int end1 = indexOf( v1, '.', start1, v1.length() );
+                final int signum = signum( v1, start1, end1 );
+                if ( signum == NO_SIGNUM )
                 {
                     // any token is better than zero
                     return +1;
                 }
+                if ( signum != 0 )
+                {
+                    return signum;
+                }
+                start1 = skipDots( v1, end1 );
             }
             return -1;
         }
-        if ( tok2.hasMoreTokens() )
+        if ( start2 < v2.length() )
         {
-            BigInteger n1 = BIG_INTEGER_ZERO;
-            while ( tok2.hasMoreTokens() )
+            while ( start2 < v2.length() )
             {
-                try
-                {
-                    BigInteger n2 = new BigInteger( tok2.nextToken() );
-                    int result = n1.compareTo( n2 );
-                    if ( result != 0 )
-                    {
-                        return result;
-                    }
-                }
-                catch ( NumberFormatException e )
+                final int end2 = indexOf( v2, '.', start2, v2.length() );
+                final int signum = signum( v2, start2, end2 );
+                if ( signum == NO_SIGNUM )
                 {
                     // any token is better than zero
                     return -1;
                 }
+                if ( signum != 0 )
+                {
+                    return -signum;
+                }
+                start2 = skipDots( v2, end2 );
             }
             return +1;
         }
         return 0;
     }
 
+    /**
+     * Compares two segments as numbers if both are numbers, otherwise as strings.
+     */
+    private static int compareSegments( String v1, int start1, int end1, String v2, int start2, int end2 )
+    {
+        final int kind1 = getKind( v1, start1, end1 );
+        final int kind2 = getKind( v2, start2, end2 );
+        if ( kind1 == DIGITS && kind2 == DIGITS && end1 - start1 <= MAX_LONG_DIGITS
+            && end2 - start2 <= MAX_LONG_DIGITS )
+        {
+            final long n1 = parseLong( v1, start1, end1 );
+            final long n2 = parseLong( v2, start2, end2 );
+            return n1 < n2 ? -1 : ( n1 == n2 ? 0 : 1 );
+        }
+        if ( kind1 != NOT_NUMBER && kind2 != NOT_NUMBER )
+        {
+            final BigInteger n1 = toBigInteger( v1, start1, end1 );
+            final BigInteger n2 = n1 == null ? null : toBigInteger( v2, start2, end2 );
+            if ( n2 != null )
+            {
+                return n1.compareTo( n2 );
+            }
+        }
+        return compareChars( v1, start1, end1, v2, start2, end2 );
+    }
+
+    /**
+     * Returns the sign of a segment, or {@link #NO_SIGNUM} if the segment is not a number.
+     */
+    private static int signum( String v, int start, int end )
+    {
+        switch ( getKind( v, start, end ) )
+        {
+            case DIGITS:
+                for ( int i = start; i < end; i++ )
+                {
+                    if ( v.charAt( i ) != '0' )
+                    {
+                        return 1;
+                    }
+                }
+                return 0;
+            case MAYBE_NUMBER:
+                final BigInteger n = toBigInteger( v, start, end );
+                return n == null ? NO_SIGNUM : n.signum();
+            default:
+                return NO_SIGNUM;
+        }
+    }
+
+    private static int getKind( String v, int start, int end )
+    {
+        if ( start == end )
+        {
+            return NOT_NUMBER;
+        }
+        int kind = DIGITS;
+        for ( int i = start; i < end; i++ )
+        {
+            final char c = v.charAt( i );
+            if ( c >= '0' && c <= '9' )
+            {
+                continue;
+            }
+            if ( c != '+' && c != '-' && Character.digit( c, 10 ) < 0 )
+            {
+                return NOT_NUMBER;
+            }
+            kind = MAYBE_NUMBER;
+        }
+        return kind;
+    }
+
+    private static long parseLong( String v, int start, int end )
+    {
+        long n = 0;
+        for ( int i = start; i < end; i++ )
+        {
+            n = n * 10 + ( v.charAt( i ) - '0' );
+        }
+        return n;
+    }
+
+    private static BigInteger toBigInteger( String v, int start, int end )
+    {
+        try
+        {
+            return new BigInteger( v.substring( start, end ) );
+        }
+        catch ( NumberFormatException e )
+        {
+            return null;
+        }
+    }
+
+    /**
+     * Compares two regions of strings the same way as {@link String#compareTo(String)}.
+     */
+    private static int compareChars( String v1, int start1, int end1, String v2, int start2, int end2 )
+    {
+        final int length1 = end1 - start1;
+        final int length2 = end2 - start2;
+        final int length = Math.min( length1, length2 );
+        for ( int i = 0; i < length; i++ )
+        {
+            final char c1 = v1.charAt( start1 + i );
+            final char c2 = v2.charAt( start2 + i );
+            if ( c1 != c2 )
+            {
+                return c1 - c2;
+            }
+        }
+        return length1 - length2;
+    }
+
+    private static int indexOf( String v, char c, int start, int end )
+    {
+        for ( int i = start; i < end; i++ )
+        {
+            if ( v.charAt( i ) == c )
+            {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private static int skipDots( String v, int index )
+    {
+        while ( index < v.length() && v.charAt( index ) == '.' )
+        {
+            index++;
+        }
+        return index;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -21,6 +21,7 @@ package org.codehaus.mojo.versions.ordering;
 
 import org.apache.maven.model.Model;
 import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.api.ReactorIndex;
 
 import java.util.Comparator;
 import java.util.Map;
@@ -36,17 +37,31 @@ public class ReactorDepthComparator
 {
     private final Map<String, Model> reactor;
 
+    private final ReactorIndex index;
+
     public ReactorDepthComparator( Map<String, Model> reactor )
     {
-        this.reactor = reactor;
+        this( new ReactorIndex( reactor ) );
+    }
+
+    /**
+     * Creates a comparator that uses the depths worked out by an index of the reactor.
+     *
+     * @param index the index of the reactor.
+     * @since 2.4
+     */
+    public ReactorDepthComparator( ReactorIndex index )
+    {
+        this.reactor = index.getModels();
+        this.index = index;
     }
 
     public int compare( String o1, String o2 )
     {
         final Model m1 = reactor.get( o1 );
         final Model m2 = reactor.get( o2 );
-        final int d1 = PomHelper.getReactorParentCount( reactor, m1 );
-        final int d2 = PomHelper.getReactorParentCount( reactor, m2 );
+        final int d1 = index.getReactorParentCount( o1 );
+        final int d2 = index.getReactorParentCount( o2 );
         if ( d1 < d2 )
         {
             return -1;
@@ -29,12 +29,17 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.Characters;
 import javax.xml.stream.events.XMLEvent;
 import java.io.IOException;
-import java.io.StringReader;
 
 /**
  * Represents the modified pom file. Note: implementations of the StAX API (JSR-173) are not good round-trip rewriting
  * <b>while</b> keeping all unchanged bytes in the file as is. For example, the StAX API specifies that <code>CR</code>
  * characters will be stripped. Current implementations do not keep &quot; and &apos; characters consistent.
+ * <p>
+ * Since 2.4 the changes are kept apart from the {@link StringBuilder} that the reader was created with, and are
+ * written back to it when the reader reaches the end of the pom or is closed, or by {@link #flush()}. Rewinding the
+ * reader no longer updates the builder, while {@link #asStringBuilder()} always returns the pom with the changes
+ * applied.
+ * </p>
  *
  * @author Stephen Connolly
  */
@@ -50,10 +55,20 @@ public class ModifiedPomXMLEventReader
     private static final int MAX_MARKS = 3;
 
     /**
-     * Field pom
+     * Field pom, the buffer that the changes are written back to.
      */
     private final StringBuilder pom;
 
+    /**
+     * Field content, the pom with the changes applied.
+     */
+    private final PieceTable content;
+
+    /**
+     * Field written, <code>false</code> while there are changes that have not been written back to the buffer.
+     */
+    private boolean written = true;
+
     /**
      * Field modified
      */
@@ -119,10 +134,42 @@ public class ModifiedPomXMLEventReader
      */
     private XMLEventReader backing;
 
+    /**
+     * Field index, built the first time it is asked for.
+     */
+    private PomIndex index;
+
+    /**
+     * Field resyncPosition, where the events still to be read start in the backing reader when the pom was changed
+     * ahead of them, or <code>-1</code>.
+     */
+    private int resyncPosition = -1;
+
+    /**
+     * Field stale, <code>true</code> once the pom was changed where events had already been read ahead.
+     */
+    private boolean stale = false;
+
     // --------------------------- CONSTRUCTORS ---------------------------
 
     /**
-     * Constructor ModifiedPomXMLEventReader creates a new ModifiedPomXMLEventReader instance.
+     * Constructor ModifiedPomXMLEventReader creates a new ModifiedPomXMLEventReader instance that reads the pom with the
+     * {@link XMLInputFactories#getInputFactory() shared factory}.
+     *
+     * @param pom of type StringBuilder
+     * @throws XMLStreamException when
+     * @see #ModifiedPomXMLEventReader(StringBuilder, XMLInputFactory)
+     * @since 2.4
+     */
+    public ModifiedPomXMLEventReader( StringBuilder pom )
+        throws XMLStreamException
+    {
+        this( pom, XMLInputFactories.getInputFactory() );
+    }
+
+    /**
+     * Constructor ModifiedPomXMLEventReader creates a new ModifiedPomXMLEventReader instance. Changes are written back
+     * to the buffer when the reader reaches the end of the pom or is closed.
      *
      * @param pom of type StringBuilder
      * @param factory of type XMLInputFactory
@@ -132,6 +179,7 @@ public class ModifiedPomXMLEventReader
         throws XMLStreamException
     {
         this.pom = pom;
+        this.content = new PieceTable( pom );
         this.factory = factory;
         rewind();
     }
@@ -144,7 +192,9 @@ public class ModifiedPomXMLEventReader
     public void rewind()
         throws XMLStreamException
     {
-        backing = factory.createXMLEventReader( new StringReader( pom.toString() ) );
+        backing = factory.createXMLEventReader( content.newReader() );
+        resyncPosition = -1;
+        stale = false;
         nextEnd = 0;
         nextDelta = 0;
         for ( int i = 0; i < MAX_MARKS; i++ )
@@ -225,6 +275,7 @@ public class ModifiedPomXMLEventReader
     public XMLEvent peek()
         throws XMLStreamException
     {
+        keepInStep();
         return backing.peek();
     }
 
@@ -234,6 +285,7 @@ public class ModifiedPomXMLEventReader
     public String getElementText()
         throws XMLStreamException
     {
+        keepInStep();
         return backing.getElementText();
     }
 
@@ -272,7 +324,11 @@ public class ModifiedPomXMLEventReader
     public void close()
         throws XMLStreamException
     {
-        backing.close();
+        flush();
+        if ( backing != null )
+        {
+            backing.close();
+        }
         next = null;
         backing = null;
     }
@@ -280,13 +336,13 @@ public class ModifiedPomXMLEventReader
     // -------------------------- OTHER METHODS --------------------------
 
     /**
-     * Returns a copy of the backing string buffer.
+     * Returns a copy of the pom with the changes applied, whether or not they have been written back to the buffer.
      *
-     * @return a copy of the backing string buffer.
+     * @return a copy of the pom with the changes applied.
      */
     public StringBuilder asStringBuilder()
     {
-        return new StringBuilder( pom.toString() );
+        return new StringBuilder( content.toString() );
     }
 
     /**
@@ -309,7 +365,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( hasMark( index ) )
         {
-            return pom.substring( markDelta[index] + markStart[index], markDelta[index] + markEnd[index] );
+            return content.substring( markDelta[index] + markStart[index], markDelta[index] + markEnd[index] );
         }
         return "";
     }
@@ -323,7 +379,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( hasNext() )
         {
-            return pom.substring( nextDelta + nextStart, nextDelta + nextEnd );
+            return content.substring( nextDelta + nextStart, nextDelta + nextEnd );
         }
         return "";
     }
@@ -333,6 +389,7 @@ public class ModifiedPomXMLEventReader
      */
     public boolean hasNext()
     {
+        keepInStep();
         if ( next != null )
         {
             // fast path
@@ -341,6 +398,7 @@ public class ModifiedPomXMLEventReader
         if ( !backing.hasNext() )
         {
             // fast path
+            flush();
             return false;
         }
         try
@@ -356,7 +414,7 @@ public class ModifiedPomXMLEventReader
             {
                 if ( !next.isCharacters() )
                 {
-                    while ( nextStart < nextEnd && nextStart < pom.length()
+                    while ( nextStart < nextEnd && nextStart < content.length()
                         && ( c( nextStart ) == '\n' || c( nextStart ) == '\r' ) )
                     {
                         nextStart++;
@@ -370,12 +428,17 @@ public class ModifiedPomXMLEventReader
                     }
                 }
             }
-            return nextStart < pom.length();
+            if ( nextStart < content.length() )
+            {
+                return true;
+            }
         }
         catch ( XMLStreamException e )
         {
-            return false;
+            // treat as the end of the pom
         }
+        flush();
+        return false;
     }
 
     /**
@@ -387,7 +450,7 @@ public class ModifiedPomXMLEventReader
     {
         if ( lastStart >= 0 && lastEnd >= lastStart )
         {
-            return pom.substring( lastDelta + lastStart, lastDelta + lastEnd );
+            return content.substring( lastDelta + lastStart, lastDelta + lastEnd );
         }
         return "";
     }
@@ -411,7 +474,7 @@ public class ModifiedPomXMLEventReader
      */
     private boolean nextEndIncludesNextEndElement()
     {
-        return ( nextEnd > nextStart + 2 && nextEnd - 2 < pom.length() && c( nextEnd - 2 ) == '<' );
+        return ( nextEnd > nextStart + 2 && nextEnd - 2 < content.length() && c( nextEnd - 2 ) == '<' );
     }
 
     /**
@@ -421,7 +484,7 @@ public class ModifiedPomXMLEventReader
      */
     private boolean nextEndIncludesNextEvent()
     {
-        return nextEnd > nextStart + 1 && nextEnd - 2 < pom.length()
+        return nextEnd > nextStart + 1 && nextEnd - 2 < content.length()
             && ( c( nextEnd - 1 ) == '<' || c( nextEnd - 1 ) == '&' );
     }
 
@@ -433,7 +496,7 @@ public class ModifiedPomXMLEventReader
      */
     private char c( int index )
     {
-        return pom.charAt( nextDelta + index );
+        return content.charAt( nextDelta + index );
     }
 
     /**
@@ -449,12 +512,14 @@ public class ModifiedPomXMLEventReader
         }
         int start = lastDelta + lastStart;
         int end = lastDelta + lastEnd;
-        if ( replacement.equals( pom.substring( start, end ) ) )
+        final String replaced = content.substring( start, end );
+        if ( replacement.equals( replaced ) )
         {
             return;
         }
-        pom.replace( start, end, replacement );
-        int delta = replacement.length() - lastEnd - lastStart;
+        content.replace( start, end, replacement );
+        updateIndex( start, end, replaced, replacement );
+        int delta = replacement.length() - ( lastEnd - lastStart );
         nextDelta += delta;
         for ( int i = 0; i < MAX_MARKS; i++ )
         {
@@ -465,6 +530,7 @@ public class ModifiedPomXMLEventReader
         }
         lastEnd += delta;
         modified = true;
+        written = false;
     }
 
     /**
@@ -486,7 +552,7 @@ public class ModifiedPomXMLEventReader
         }
         int start = markDelta[index1] + markEnd[index1];
         int end = markDelta[index2] + markStart[index2];
-        return pom.substring( start, end );
+        return content.substring( start, end );
 
     }
 
@@ -505,11 +571,13 @@ public class ModifiedPomXMLEventReader
         }
         int start = markDelta[index1] + markEnd[index1];
         int end = markDelta[index2] + markStart[index2];
-        if ( replacement.equals( pom.substring( start, end ) ) )
+        final String replaced = content.substring( start, end );
+        if ( replacement.equals( replaced ) )
         {
             return;
         }
-        pom.replace( start, end, replacement );
+        content.replace( start, end, replacement );
+        updateIndex( start, end, replaced, replacement );
         int delta = replacement.length() - ( end - start );
         nextDelta += delta;
 
@@ -534,6 +602,7 @@ public class ModifiedPomXMLEventReader
         }
 
         modified = true;
+        written = false;
     }
 
     /**
@@ -550,12 +619,14 @@ public class ModifiedPomXMLEventReader
         }
         int start = markDelta[index] + markStart[index];
         int end = markDelta[index] + markEnd[index];
-        if ( replacement.equals( pom.substring( start, end ) ) )
+        final String replaced = content.substring( start, end );
+        if ( replacement.equals( replaced ) )
         {
             return;
         }
-        pom.replace( start, end, replacement );
-        int delta = replacement.length() - markEnd[index] - markStart[index];
+        content.replace( start, end, replacement );
+        updateIndex( start, end, replaced, replacement );
+        int delta = replacement.length() - ( markEnd[index] - markStart[index] );
         nextDelta += delta;
         if ( lastStart == markStart[index] && lastEnd == markEnd[index] )
         {
@@ -582,13 +653,214 @@ public class ModifiedPomXMLEventReader
         }
         markEnd[index] += delta;
         modified = true;
+        written = false;
+    }
+
+    /**
+     * Returns the index of the elements of the pom, building it if needed. Building the index rewinds the pom.
+     *
+     * @return the index.
+     * @throws XMLStreamException when things go wrong.
+     * @since 2.4
+     */
+    public PomIndex getIndex()
+        throws XMLStreamException
+    {
+        if ( index == null )
+        {
+            index = PomIndex.build( this );
+        }
+        return index;
+    }
+
+    /**
+     * Returns the verbatim content of an element of the {@link #getIndex() index}.
+     *
+     * @param element The element.
+     * @return the text between the element's start and end tags.
+     * @since 2.4
+     */
+    public String getContent( PomIndex.Element element )
+    {
+        return content.substring( element.getContentStart(), element.getContentEnd() );
+    }
+
+    /**
+     * Replaces the content of an element of the {@link #getIndex() index} with the replacement text. Any marks after
+     * the element are kept in step with the change. When the element comes after the events read so far, as it does
+     * straight after the index is built, the events still to be read come from the changed pom. When the element
+     * overlaps an event that has already been read ahead, the pom must be {@link #rewind() rewound} before reading
+     * any more events.
+     *
+     * @param element The element.
+     * @param replacement The replacement.
+     * @since 2.4
+     */
+    public void replaceContent( PomIndex.Element element, String replacement )
+    {
+        int start = element.getContentStart();
+        int end = element.getContentEnd();
+        final String replaced = content.substring( start, end );
+        if ( replacement.equals( replaced ) )
+        {
+            return;
+        }
+        final int position = resyncPosition >= 0 ? resyncPosition : getBackingPosition();
+        content.replace( start, end, replacement );
+        int delta = replacement.length() - ( end - start );
+        if ( position >= 0 && nextDelta + position <= start )
+        {
+            // the change is ahead of the events read so far, so the rest are read again from the changed pom
+            resyncPosition = position;
+        }
+        else if ( position < 0 || nextDelta + ( next != null ? nextStart : position ) >= end )
+        {
+            nextDelta += delta;
+        }
+        else
+        {
+            stale = true;
+        }
+        if ( lastStart >= 0 && lastDelta + lastStart >= end )
+        {
+            lastDelta += delta;
+        }
+        for ( int i = 0; i < MAX_MARKS; i++ )
+        {
+            if ( !hasMark( i ) )
+            {
+                continue;
+            }
+            if ( markDelta[i] + markStart[i] >= end )
+            {
+                markDelta[i] += delta;
+            }
+            else if ( markDelta[i] + markEnd[i] > start )
+            {
+                markStart[i] = -1;
+            }
+        }
+        updateIndex( start, end, replaced, replacement );
+        modified = true;
+        written = false;
+    }
+
+    /**
+     * Returns where the next event of the backing reader starts.
+     *
+     * @return the offset of the next event in the text being read, or <code>-1</code> at the end of the pom.
+     */
+    private int getBackingPosition()
+    {
+        try
+        {
+            if ( backing != null && backing.hasNext() )
+            {
+                return backing.peek().getLocation().getCharacterOffset();
+            }
+        }
+        catch ( XMLStreamException e )
+        {
+            // treat as the end of the pom
+        }
+        return -1;
+    }
+
+    /**
+     * Reads the events still to be read from the changed pom if it was changed ahead of them.
+     *
+     * @throws IllegalStateException if the pom was changed where events had already been read ahead.
+     */
+    private void keepInStep()
+    {
+        if ( resyncPosition >= 0 )
+        {
+            final int position = nextDelta + resyncPosition;
+            resyncPosition = -1;
+            try
+            {
+                // the pom is unchanged up to the position, so skipping to it gives the same events
+                backing = factory.createXMLEventReader( content.newReader() );
+                while ( backing.hasNext() && backing.peek().getLocation().getCharacterOffset() < position )
+                {
+                    backing.nextEvent();
+                }
+                if ( backing.hasNext() && backing.peek().getLocation().getCharacterOffset() != position )
+                {
+                    stale = true;
+                }
+            }
+            catch ( XMLStreamException e )
+            {
+                stale = true;
+            }
+            nextStart += nextDelta;
+            nextEnd += nextDelta;
+            nextDelta = 0;
+        }
+        if ( stale )
+        {
+            throw new IllegalStateException( "The pom was changed where events had already been read, "
+                + "rewind it before reading any more events" );
+        }
+    }
+
+    /**
+     * Keeps the index in step with a change to the buffer, or drops it if the change may have changed the elements.
+     *
+     * @param start The start of the replaced text.
+     * @param end The end of the replaced text.
+     * @param replaced The replaced text.
+     * @param replacement The replacement.
+     */
+    private void updateIndex( int start, int end, String replaced, String replacement )
+    {
+        if ( index != null && !index.update( start, end, replaced, replacement, content ) )
+        {
+            index = null;
+        }
+    }
+
+    /**
+     * Returns the offset in the buffer of the start of the current event.
+     *
+     * @return the offset in the buffer of the start of the current event.
+     */
+    int getVerbatimStart()
+    {
+        return lastDelta + lastStart;
+    }
+
+    /**
+     * Returns the offset in the buffer of the end of the current event.
+     *
+     * @return the offset in the buffer of the end of the current event.
+     */
+    int getVerbatimEnd()
+    {
+        return lastDelta + lastEnd;
+    }
+
+    /**
+     * Writes the changes back to the buffer that the reader was created with, which is otherwise only done when the
+     * reader reaches the end of the pom or is closed.
+     *
+     * @since 2.4
+     */
+    public void flush()
+    {
+        if ( !written )
+        {
+            content.writeTo( pom );
+            written = true;
+        }
     }
 
     public Model parse()
         throws IOException, XmlPullParserException
     {
         MavenXpp3Reader reader = new MavenXpp3Reader();
-        return reader.read( new StringReader( pom.toString() ) );
+        return reader.read( content.newReader() );
     }
 
 }
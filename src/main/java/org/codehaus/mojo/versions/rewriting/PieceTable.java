@@ -0,0 +1,357 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The text of a pom as a piece table: a list of pieces of the original text and of an append-only buffer holding the
+ * replacements. Replacing part of the text only splits and inserts pieces, rather than copying everything after the
+ * replaced part, and a {@link #newReader() reader} over the text shares the pieces rather than copying them.
+ *
+ * @since 2.4
+ */
+final class PieceTable
+    implements CharSequence
+{
+    /**
+     * Once there are more pieces than this the text is copied into a single piece, so that the pieces never cost more
+     * to walk than the text does to copy.
+     */
+    private static final int MAX_PIECES = 1024;
+
+    /**
+     * The replacements. Text is only ever appended, so pieces (including those held by readers) stay valid.
+     */
+    private StringBuilder added = new StringBuilder();
+
+    private final List<Piece> pieces = new ArrayList<Piece>();
+
+    /**
+     * The offset of each piece in the text, or <code>null</code> after the pieces have changed.
+     */
+    private int[] offsets;
+
+    /**
+     * The index of the piece found by the last lookup, as lookups tend to be close together.
+     */
+    private int cursor;
+
+    private int length;
+
+    /**
+     * Creates a new piece table.
+     *
+     * @param text the original text.
+     */
+    PieceTable( CharSequence text )
+    {
+        reset( text.toString() );
+    }
+
+    private void reset( String text )
+    {
+        pieces.clear();
+        if ( text.length() > 0 )
+        {
+            pieces.add( new Piece( text, 0, text.length() ) );
+        }
+        added = new StringBuilder();
+        length = text.length();
+        offsets = null;
+        cursor = 0;
+    }
+
+    public int length()
+    {
+        return length;
+    }
+
+    public char charAt( int index )
+    {
+        if ( index < 0 || index >= length )
+        {
+            throw new IndexOutOfBoundsException( Integer.toString( index ) );
+        }
+        final int p = find( index );
+        final Piece piece = pieces.get( p );
+        return piece.text.charAt( piece.start + index - offsets[p] );
+    }
+
+    public CharSequence subSequence( int start, int end )
+    {
+        return substring( start, end );
+    }
+
+    /**
+     * Returns part of the text.
+     *
+     * @param start the start of the part, inclusive.
+     * @param end the end of the part, exclusive.
+     * @return the part of the text.
+     */
+    public String substring( int start, int end )
+    {
+        if ( start < 0 || end > length || start > end )
+        {
+            throw new IndexOutOfBoundsException( "[" + start + "," + end + ")" );
+        }
+        if ( start == end )
+        {
+            return "";
+        }
+        int p = find( start );
+        final Piece first = pieces.get( p );
+        final int firstStart = first.start + start - offsets[p];
+        if ( end - start <= first.length - ( firstStart - first.start ) )
+        {
+            // the common case of text within a single piece
+            return first.text.subSequence( firstStart, firstStart + end - start ).toString();
+        }
+        final char[] buf = new char[end - start];
+        int offset = 0;
+        for ( int pieceStart = firstStart; offset < buf.length; p++ )
+        {
+            final Piece piece = pieces.get( p );
+            final int count = Math.min( piece.length - ( pieceStart - piece.start ), buf.length - offset );
+            piece.getChars( pieceStart, count, buf, offset );
+            offset += count;
+            if ( p + 1 < pieces.size() )
+            {
+                pieceStart = pieces.get( p + 1 ).start;
+            }
+        }
+        return new String( buf );
+    }
+
+    /**
+     * Replaces part of the text.
+     *
+     * @param start the start of the part, inclusive.
+     * @param end the end of the part, exclusive.
+     * @param replacement the replacement.
+     */
+    public void replace( int start, int end, String replacement )
+    {
+        if ( start < 0 || end > length || start > end )
+        {
+            throw new IndexOutOfBoundsException( "[" + start + "," + end + ")" );
+        }
+        final int first = split( start );
+        final int last = split( end );
+        for ( int i = last - 1; i >= first; i-- )
+        {
+            pieces.remove( i );
+        }
+        if ( replacement.length() > 0 )
+        {
+            pieces.add( first, new Piece( added, added.length(), replacement.length() ) );
+            added.append( replacement );
+        }
+        offsets = null;
+        length += replacement.length() - ( end - start );
+        if ( pieces.size() > MAX_PIECES )
+        {
+            reset( toString() );
+        }
+    }
+
+    /**
+     * Makes sure a piece starts at the specified offset.
+     *
+     * @param offset the offset.
+     * @return the index of the piece that starts at the offset, or the number of pieces if the offset is the end.
+     */
+    private int split( int offset )
+    {
+        if ( offset == length )
+        {
+            return pieces.size();
+        }
+        final int p = find( offset );
+        final int pieceOffset = offset - offsets[p];
+        if ( pieceOffset == 0 )
+        {
+            return p;
+        }
+        final Piece piece = pieces.get( p );
+        pieces.set( p, new Piece( piece.text, piece.start, pieceOffset ) );
+        pieces.add( p + 1, new Piece( piece.text, piece.start + pieceOffset, piece.length - pieceOffset ) );
+        offsets = null;
+        return p + 1;
+    }
+
+    /**
+     * Finds the piece holding the character at the specified offset.
+     *
+     * @param offset the offset, which must be less than the length.
+     * @return the index of the piece.
+     */
+    private int find( int offset )
+    {
+        if ( offsets == null )
+        {
+            offsets = new int[pieces.size()];
+            int pieceOffset = 0;
+            for ( int i = 0; i < offsets.length; i++ )
+            {
+                offsets[i] = pieceOffset;
+                pieceOffset += pieces.get( i ).length;
+            }
+            cursor = 0;
+        }
+        if ( offsets[cursor] <= offset && offset - offsets[cursor] < pieces.get( cursor ).length )
+        {
+            return cursor;
+        }
+        int low = 0;
+        int high = offsets.length - 1;
+        while ( low < high )
+        {
+            final int mid = ( low + high + 1 ) >>> 1;
+            if ( offsets[mid] <= offset )
+            {
+                low = mid;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        cursor = low;
+        return low;
+    }
+
+    /**
+     * Returns a reader over the text as it is now. Later replacements do not affect the reader.
+     *
+     * @return a reader over the text.
+     */
+    public Reader newReader()
+    {
+        return new PieceReader( pieces.toArray( new Piece[pieces.size()] ) );
+    }
+
+    /**
+     * Replaces the contents of a string builder with the text.
+     *
+     * @param builder the string builder.
+     */
+    public void writeTo( StringBuilder builder )
+    {
+        builder.setLength( 0 );
+        builder.ensureCapacity( length );
+        for ( Piece piece : pieces )
+        {
+            builder.append( piece.text, piece.start, piece.start + piece.length );
+        }
+    }
+
+    public String toString()
+    {
+        final char[] buf = new char[length];
+        int offset = 0;
+        for ( Piece piece : pieces )
+        {
+            piece.getChars( piece.start, piece.length, buf, offset );
+            offset += piece.length;
+        }
+        return new String( buf );
+    }
+
+    /**
+     * Part of the original text or of the replacements.
+     */
+    private static final class Piece
+    {
+        private final CharSequence text;
+
+        private final int start;
+
+        private final int length;
+
+        private Piece( CharSequence text, int start, int length )
+        {
+            this.text = text;
+            this.start = start;
+            this.length = length;
+        }
+
+        private void getChars( int from, int count, char[] dst, int dstOffset )
+        {
+            if ( text instanceof String )
+            {
+                ( (String) text ).getChars( from, from + count, dst, dstOffset );
+            }
+            else
+            {
+                ( (StringBuilder) text ).getChars( from, from + count, dst, dstOffset );
+            }
+        }
+    }
+
+    /**
+     * Reads a fixed list of pieces.
+     */
+    private static final class PieceReader
+        extends Reader
+    {
+        private final Piece[] pieces;
+
+        private int piece;
+
+        private int pieceOffset;
+
+        private PieceReader( Piece[] pieces )
+        {
+            this.pieces = pieces;
+        }
+
+        public int read( char[] cbuf, int off, int len )
+        {
+            if ( len == 0 )
+            {
+                return 0;
+            }
+            int count = 0;
+            while ( count < len && piece < pieces.length )
+            {
+                final Piece current = pieces[piece];
+                final int n = Math.min( current.length - pieceOffset, len - count );
+                current.getChars( current.start + pieceOffset, n, cbuf, off + count );
+                count += n;
+                pieceOffset += n;
+                if ( pieceOffset == current.length )
+                {
+                    piece++;
+                    pieceOffset = 0;
+                }
+            }
+            return count == 0 ? -1 : count;
+        }
+
+        public void close()
+        {
+            piece = pieces.length;
+        }
+    }
+}
@@ -0,0 +1,628 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The elements of a pom and where their content lies in the {@link ModifiedPomXMLEventReader}'s buffer, so that
+ * elements can be found and rewritten without streaming through the whole pom each time.
+ * <p>
+ * The index is built with a single pass over the pom and its offsets are kept up to date as the pom is edited. The
+ * elements after an edit are shifted lazily, so an edit costs time logarithmic in the number of elements rather than
+ * linear. Edits that replace or write markup, such as tags or comments, may change the elements themselves, so they
+ * make the index stale and it is built again the next time it is asked for.
+ * </p>
+ *
+ * @since 2.4
+ */
+public final class PomIndex
+{
+    private static final String PROJECT_PROPERTIES = "/project/properties";
+
+    private static final String PROFILE = "/project/profiles/profile";
+
+    /**
+     * All the elements, in document order.
+     */
+    private final List<Element> elements = new ArrayList<Element>();
+
+    /**
+     * The elements, keyed by their path.
+     */
+    private final Map<String, List<Element>> elementsByPath = new HashMap<String, List<Element>>();
+
+    /**
+     * The property definitions, keyed by the id of the profile that defines them (<code>null</code> for the project
+     * itself) and then by property name. Each properties scope that defines a property contributes its last
+     * definition of it.
+     */
+    private final Map<String, Map<String, List<Element>>> propertiesByProfile =
+        new HashMap<String, Map<String, List<Element>>>();
+
+    /**
+     * How far the elements have been shifted by edits since the index was built, as a Fenwick tree over the indexes
+     * of the elements: the shift of an element is the sum of the entries up to it.
+     */
+    private int[] shifts;
+
+    private PomIndex()
+    {
+    }
+
+    /**
+     * Builds the index of a pom. This rewinds the pom and reads it to the end.
+     *
+     * @param pom the pom.
+     * @return the index.
+     * @throws XMLStreamException if the pom could not be read.
+     */
+    static PomIndex build( ModifiedPomXMLEventReader pom )
+        throws XMLStreamException
+    {
+        final PomIndex index = new PomIndex();
+        Element open = null;
+        StringBuilder text = null;
+        pom.rewind();
+        while ( pom.hasNext() )
+        {
+            XMLEvent event = pom.nextEvent();
+            if ( event.isStartElement() )
+            {
+                if ( open != null )
+                {
+                    // the parent is not a leaf
+                    open.text = null;
+                }
+                final String name = event.asStartElement().getName().getLocalPart();
+                open = new Element( index, open, name, index.elements.size(), pom.getVerbatimEnd() );
+                index.add( open );
+                text = new StringBuilder();
+            }
+            else if ( event.isCharacters() && text != null )
+            {
+                text.append( event.asCharacters().getData() );
+            }
+            else if ( event.isEndElement() && open != null )
+            {
+                open.contentEnd = pom.getVerbatimStart();
+                if ( text != null )
+                {
+                    open.text = text.toString();
+                }
+                text = null;
+                open = open.parent;
+            }
+        }
+        pom.rewind();
+        index.shifts = new int[index.elements.size() + 1];
+        index.indexProperties();
+        return index;
+    }
+
+    private void add( Element element )
+    {
+        elements.add( element );
+        List<Element> list = elementsByPath.get( element.path );
+        if ( list == null )
+        {
+            list = new ArrayList<Element>( 1 );
+            elementsByPath.put( element.path, list );
+        }
+        list.add( element );
+    }
+
+    private void indexProperties()
+    {
+        for ( Element properties : getElements( PROJECT_PROPERTIES ) )
+        {
+            addProperties( null, getLastDefinitions( Collections.singletonList( properties ) ) );
+        }
+        for ( Element profile : getElements( PROFILE ) )
+        {
+            Element id = profile.getLastChild( "id" );
+            if ( id != null && id.getText() != null )
+            {
+                addProperties( id.getText().trim(), getLastDefinitions( profile.getChildren( "properties" ) ) );
+            }
+        }
+    }
+
+    private static Map<String, Element> getLastDefinitions( List<Element> scopes )
+    {
+        final Map<String, Element> result = new LinkedHashMap<String, Element>();
+        for ( Element properties : scopes )
+        {
+            for ( Element property : properties.children )
+            {
+                result.put( property.name, property );
+            }
+        }
+        return result;
+    }
+
+    private void addProperties( String profileId, Map<String, Element> definitions )
+    {
+        Map<String, List<Element>> properties = propertiesByProfile.get( profileId );
+        if ( properties == null )
+        {
+            properties = new HashMap<String, List<Element>>();
+            propertiesByProfile.put( profileId, properties );
+        }
+        for ( Element definition : definitions.values() )
+        {
+            List<Element> list = properties.get( definition.name );
+            if ( list == null )
+            {
+                list = new ArrayList<Element>( 1 );
+                properties.put( definition.name, list );
+            }
+            list.add( definition );
+        }
+    }
+
+    /**
+     * Returns the elements with the specified path, such as <code>/project/dependencies/dependency</code>, in
+     * document order.
+     *
+     * @param path the path.
+     * @return the elements, possibly empty.
+     */
+    public List<Element> getElements( String path )
+    {
+        final List<Element> result = elementsByPath.get( path );
+        return result == null ? Collections.<Element>emptyList() : Collections.unmodifiableList( result );
+    }
+
+    /**
+     * Returns the first element with the specified path.
+     *
+     * @param path the path.
+     * @return the first element or <code>null</code> if there is none.
+     */
+    public Element getElement( String path )
+    {
+        final List<Element> result = elementsByPath.get( path );
+        return result == null ? null : result.get( 0 );
+    }
+
+    /**
+     * Returns the definitions of a property in the project or in a profile. There is one definition for every
+     * properties scope (the project's, or each profile with the id) that defines the property, being the last one in
+     * that scope.
+     *
+     * @param profileId the id of the profile or <code>null</code> for the project's own properties.
+     * @param property the name of the property.
+     * @return the definitions, possibly empty.
+     */
+    public List<Element> getPropertyDefinitions( String profileId, String property )
+    {
+        final Map<String, List<Element>> properties =
+            propertiesByProfile.get( profileId == null ? null : profileId.trim() );
+        final List<Element> result = properties == null ? null : properties.get( property );
+        return result == null ? Collections.<Element>emptyList() : Collections.unmodifiableList( result );
+    }
+
+    /**
+     * Updates the offsets, and the text of the element that was edited, after part of the buffer was replaced.
+     *
+     * @param start the start of the replaced part.
+     * @param end the end of the replaced part.
+     * @param replaced the text that was replaced.
+     * @param replacement the replacement.
+     * @param content the buffer, after the replacement.
+     * @return <code>false</code> if the replacement holds markup, or markup was replaced other than as the whole
+     *         content of a leaf element, in which case the index may no longer match the pom.
+     */
+    boolean update( int start, int end, String replaced, String replacement, PieceTable content )
+    {
+        if ( isMarkup( replacement ) )
+        {
+            return false;
+        }
+        final int delta = replacement.length() - ( end - start );
+        // without markup the edit lies within text, so the elements after the last one starting before it follow it
+        final int last = findLastStartingAtOrBefore( start );
+        if ( isMarkup( replaced ) && !isLeafContent( last, start, end ) )
+        {
+            // only the whole content of a leaf, such as a value with a comment, can be replaced along with its markup
+            return false;
+        }
+        if ( last + 1 < elements.size() )
+        {
+            shift( last + 1, delta );
+        }
+        Element innermost = null;
+        for ( Element e = last < 0 ? null : elements.get( last ); e != null; e = e.parent )
+        {
+            if ( e.getContentEnd() >= end )
+            {
+                if ( innermost == null )
+                {
+                    innermost = e;
+                }
+                e.contentEnd += delta;
+            }
+        }
+        if ( innermost != null && innermost.children.isEmpty() && innermost.text != null )
+        {
+            if ( innermost.getContentStart() == start && innermost.getContentEnd() == start + replacement.length()
+                && replacement.indexOf( '&' ) < 0 && replacement.indexOf( '\r' ) < 0 )
+            {
+                innermost.text = replacement;
+            }
+            else
+            {
+                innermost.text = getText( content.substring( innermost.getContentStart(), innermost.getContentEnd() ) );
+                if ( innermost.text == null )
+                {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean isLeafContent( int index, int start, int end )
+    {
+        if ( index < 0 )
+        {
+            return false;
+        }
+        final Element element = elements.get( index );
+        return element.children.isEmpty() && element.getContentStart() == start && element.getContentEnd() == end;
+    }
+
+    private static boolean isMarkup( String text )
+    {
+        return text.indexOf( '<' ) >= 0 || text.indexOf( '>' ) >= 0;
+    }
+
+    /**
+     * Finds the last element, in document order, whose content starts at or before an offset.
+     *
+     * @return the index of the element, or <code>-1</code> if there is none.
+     */
+    private int findLastStartingAtOrBefore( int offset )
+    {
+        int low = 0;
+        int high = elements.size() - 1;
+        while ( low <= high )
+        {
+            final int mid = ( low + high ) >>> 1;
+            if ( elements.get( mid ).getContentStart() <= offset )
+            {
+                low = mid + 1;
+            }
+            else
+            {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    /**
+     * Shifts an element and all the elements after it.
+     */
+    private void shift( int index, int delta )
+    {
+        for ( int i = index + 1; i < shifts.length; i += i & -i )
+        {
+            shifts[i] += delta;
+        }
+    }
+
+    private int getShift( int index )
+    {
+        int shift = 0;
+        for ( int i = index + 1; i > 0; i -= i & -i )
+        {
+            shift += shifts[i];
+        }
+        return shift;
+    }
+
+    /**
+     * Works out the text of a leaf element from its verbatim content, as the StAX parser would, resolving character
+     * references and the predefined entities and leaving out comments.
+     *
+     * @param verbatim the verbatim content.
+     * @return the text, or <code>null</code> if the content holds anything else, such as a processing instruction or
+     *         an entity defined by the document.
+     */
+    static String getText( String verbatim )
+    {
+        final StringBuilder text = new StringBuilder( verbatim.length() );
+        int i = 0;
+        while ( i < verbatim.length() )
+        {
+            final char c = verbatim.charAt( i );
+            if ( c == '<' )
+            {
+                if ( verbatim.startsWith( "<!--", i ) )
+                {
+                    final int close = verbatim.indexOf( "-->", i + 4 );
+                    if ( close < 0 )
+                    {
+                        return null;
+                    }
+                    i = close + 3;
+                }
+                else if ( verbatim.startsWith( "<![CDATA[", i ) )
+                {
+                    final int close = verbatim.indexOf( "]]>", i + 9 );
+                    if ( close < 0 )
+                    {
+                        return null;
+                    }
+                    text.append( verbatim, i + 9, close );
+                    i = close + 3;
+                }
+                else
+                {
+                    return null;
+                }
+            }
+            else if ( c == '&' )
+            {
+                final int semicolon = verbatim.indexOf( ';', i );
+                if ( semicolon < 0 )
+                {
+                    return null;
+                }
+                final String entity = verbatim.substring( i + 1, semicolon );
+                if ( "amp".equals( entity ) )
+                {
+                    text.append( '&' );
+                }
+                else if ( "lt".equals( entity ) )
+                {
+                    text.append( '<' );
+                }
+                else if ( "gt".equals( entity ) )
+                {
+                    text.append( '>' );
+                }
+                else if ( "quot".equals( entity ) )
+                {
+                    text.append( '"' );
+                }
+                else if ( "apos".equals( entity ) )
+                {
+                    text.append( '\'' );
+                }
+                else if ( entity.startsWith( "#" ) )
+                {
+                    try
+                    {
+                        final int codePoint = entity.startsWith( "#x" )
+                            ? Integer.parseInt( entity.substring( 2 ), 16 )
+                            : Integer.parseInt( entity.substring( 1 ) );
+                        text.appendCodePoint( codePoint );
+                    }
+                    catch ( IllegalArgumentException e )
+                    {
+                        return null;
+                    }
+                }
+                else
+                {
+                    return null;
+                }
+                i = semicolon + 1;
+            }
+            else if ( c == '\r' )
+            {
+                // line ends are normalised
+                text.append( '\n' );
+                i += i + 1 < verbatim.length() && verbatim.charAt( i + 1 ) == '\n' ? 2 : 1;
+            }
+            else
+            {
+                text.append( c );
+                i++;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * An element of the pom.
+     *
+     * @since 2.4
+     */
+    public static final class Element
+    {
+        private final PomIndex owner;
+
+        private final Element parent;
+
+        private final String name;
+
+        private final String path;
+
+        private final int index;
+
+        private final List<Element> children = new ArrayList<Element>( 0 );
+
+        private int contentStart;
+
+        private int contentEnd;
+
+        /**
+         * The text of a leaf element, <code>null</code> if the element has child elements.
+         */
+        private String text;
+
+        private Element( PomIndex owner, Element parent, String name, int index, int contentStart )
+        {
+            this.owner = owner;
+            this.parent = parent;
+            this.name = name;
+            this.path = ( parent == null ? "" : parent.path ) + "/" + name;
+            this.index = index;
+            this.contentStart = contentStart;
+            this.contentEnd = contentStart;
+            if ( parent != null )
+            {
+                parent.children.add( this );
+            }
+        }
+
+        /**
+         * Returns the parent element.
+         *
+         * @return the parent element or <code>null</code> for the root element.
+         */
+        public Element getParent()
+        {
+            return parent;
+        }
+
+        /**
+         * Returns the local name of the element.
+         *
+         * @return the local name of the element.
+         */
+        public String getName()
+        {
+            return name;
+        }
+
+        /**
+         * Returns the path of the element, such as <code>/project/version</code>.
+         *
+         * @return the path of the element.
+         */
+        public String getPath()
+        {
+            return path;
+        }
+
+        /**
+         * Returns the child elements, in document order.
+         *
+         * @return the child elements.
+         */
+        public List<Element> getChildren()
+        {
+            return Collections.unmodifiableList( children );
+        }
+
+        /**
+         * Returns the child elements with the specified name, in document order.
+         *
+         * @param name the local name.
+         * @return the child elements with the name.
+         */
+        public List<Element> getChildren( String name )
+        {
+            final List<Element> result = new ArrayList<Element>( 1 );
+            for ( Element child : children )
+            {
+                if ( name.equals( child.name ) )
+                {
+                    result.add( child );
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Returns the first child element with the specified name.
+         *
+         * @param name the local name.
+         * @return the first child element with the name or <code>null</code>.
+         */
+        public Element getChild( String name )
+        {
+            for ( Element child : children )
+            {
+                if ( name.equals( child.name ) )
+                {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the last child element with the specified name.
+         *
+         * @param name the local name.
+         * @return the last child element with the name or <code>null</code>.
+         */
+        public Element getLastChild( String name )
+        {
+            for ( int i = children.size() - 1; i >= 0; i-- )
+            {
+                if ( name.equals( children.get( i ).name ) )
+                {
+                    return children.get( i );
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Returns the text of the element, with entities resolved and comments left out, as
+         * {@link ModifiedPomXMLEventReader#getElementText()} would.
+         *
+         * @return the text of the element or <code>null</code> if it has child elements.
+         */
+        public String getText()
+        {
+            return text;
+        }
+
+        /**
+         * Returns the offset in the buffer of the start of the element's content.
+         *
+         * @return the offset of the end of the start tag.
+         */
+        public int getContentStart()
+        {
+            return contentStart + owner.getShift( index );
+        }
+
+        /**
+         * Returns the offset in the buffer of the end of the element's content.
+         *
+         * @return the offset of the start of the end tag.
+         */
+        public int getContentEnd()
+        {
+            return contentEnd + owner.getShift( index );
+        }
+
+        public String toString()
+        {
+            return path + "[" + getContentStart() + "," + getContentEnd() + ")";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.codehaus.stax2.XMLInputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+
+/**
+ * Holds the {@link XMLInputFactory} used to read poms. Looking up a StAX implementation means scanning the class path
+ * for a service, which is far slower than reading a pom, so it is done once and the configured factory is shared.
+ * Once configured a factory is safe to use from several threads, so callers must never change its properties.
+ *
+ * @since 2.4
+ */
+public final class XMLInputFactories
+{
+    private XMLInputFactories()
+    {
+    }
+
+    /**
+     * Returns the shared factory for reading poms, which preserves the location of every event.
+     *
+     * @return the shared factory.
+     */
+    public static XMLInputFactory getInputFactory()
+    {
+        return Holder.INPUT_FACTORY;
+    }
+
+    /**
+     * Creates the factory the first time it is asked for.
+     */
+    private static final class Holder
+    {
+        private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+        private static XMLInputFactory createInputFactory()
+        {
+            XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+            inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+            return inputFactory;
+        }
+    }
+}
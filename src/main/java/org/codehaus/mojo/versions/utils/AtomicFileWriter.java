@@ -0,0 +1,151 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Replaces the contents of files so that readers, including other builds sharing the same directory, never see a
+ * half written file. The contents are written to a uniquely named temporary file next to the file, which is then
+ * renamed over it.
+ *
+ * @since 2.4
+ */
+public final class AtomicFileWriter
+{
+    /**
+     * Whether it has been logged that files could not be replaced atomically, which is only worth a warning once.
+     */
+    private static final AtomicBoolean WARNED = new AtomicBoolean();
+
+    private AtomicFileWriter()
+    {
+    }
+
+    /**
+     * Replaces the contents of a file, creating it and its directory if needed. A symbolic link is followed, so that
+     * the file it points to is replaced rather than the link, and the permissions of the file are kept. Where the
+     * platform will not rename over an existing file, as on Windows, the contents are copied into the file instead,
+     * which is not atomic, and a warning says so the first time.
+     *
+     * @param file The file to write.
+     * @param content The new contents of the file.
+     * @param log The log to warn when the file could not be replaced atomically.
+     * @throws IOException when things go wrong.
+     */
+    public static void write( File file, byte[] content, Log log )
+        throws IOException
+    {
+        final File target = file.getCanonicalFile();
+        final File dir = target.getParentFile();
+        if ( !dir.isDirectory() && !dir.mkdirs() )
+        {
+            throw new IOException( "Could not create directory " + dir );
+        }
+        final File tempFile = File.createTempFile( target.getName(), ".tmp", dir );
+        try
+        {
+            final OutputStream out = new FileOutputStream( tempFile );
+            try
+            {
+                out.write( content );
+            }
+            finally
+            {
+                IOUtil.close( out );
+            }
+            if ( target.exists() )
+            {
+                copyPermissions( target, tempFile, log );
+            }
+            if ( !tempFile.renameTo( target ) )
+            {
+                final String message = "Could not rename " + tempFile + " over " + target
+                    + ", copying it instead so the file is not replaced atomically";
+                if ( WARNED.compareAndSet( false, true ) )
+                {
+                    log.warn( message );
+                }
+                else
+                {
+                    log.debug( message );
+                }
+                FileUtils.copyFile( tempFile, target );
+            }
+        }
+        finally
+        {
+            if ( tempFile.exists() && !tempFile.delete() )
+            {
+                tempFile.deleteOnExit();
+            }
+        }
+    }
+
+    /**
+     * Gives a file whether the original is readable, writable and executable, as far as the permissions can be seen
+     * through {@link File}. Reading and writing are only set for the owner, so that a file is never opened up to more
+     * users than before, while a script stays executable by everyone. The setters are looked up by reflection as they
+     * are only there from Java 6 on, before which nothing is copied.
+     *
+     * @param original The file to copy the permissions from.
+     * @param file The file to copy the permissions to.
+     * @param log The log to report permissions that could not be copied to.
+     */
+    private static void copyPermissions( File original, File file, Log log )
+    {
+        try
+        {
+            final Method canExecute = File.class.getMethod( "canExecute", new Class[0] );
+            setPermission( file, "setReadable", original.canRead(), true );
+            setPermission( file, "setWritable", original.canWrite(), true );
+            setPermission( file, "setExecutable", (Boolean) canExecute.invoke( original, new Object[0] ), false );
+        }
+        catch ( NoSuchMethodException e )
+        {
+            // before Java 6
+        }
+        catch ( IllegalAccessException e )
+        {
+            log.debug( "Could not copy the permissions of " + original, e );
+        }
+        catch ( InvocationTargetException e )
+        {
+            log.debug( "Could not copy the permissions of " + original, e.getTargetException() );
+        }
+    }
+
+    private static void setPermission( File file, String setter, boolean permitted, boolean ownerOnly )
+        throws NoSuchMethodException, IllegalAccessException, InvocationTargetException
+    {
+        final Method method = File.class.getMethod( setter, new Class[] { Boolean.TYPE, Boolean.TYPE } );
+        method.invoke( file, new Object[] { Boolean.valueOf( permitted ), Boolean.valueOf( ownerOnly ) } );
+    }
+}
@@ -0,0 +1,276 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link Log} that holds on to what is logged until it is {@link #flushTo(Log) flushed} to another log, so that work
+ * done in parallel can be reported in a fixed order. Messages at levels the other log has disabled are dropped
+ * straight away.
+ *
+ * @since 2.4
+ */
+public final class BufferedLog
+    implements Log
+{
+    private static final int DEBUG = 0;
+
+    private static final int INFO = 1;
+
+    private static final int WARN = 2;
+
+    private static final int ERROR = 3;
+
+    private final Log delegate;
+
+    private final List<Entry> entries = new ArrayList<Entry>();
+
+    /**
+     * Creates a new buffered log.
+     *
+     * @param delegate the log whose levels are used and that the messages will be flushed to.
+     */
+    public BufferedLog( Log delegate )
+    {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Writes the buffered messages to a log, in the order they were logged, and forgets them.
+     *
+     * @param log the log.
+     */
+    public synchronized void flushTo( Log log )
+    {
+        for ( Entry entry : entries )
+        {
+            entry.writeTo( log );
+        }
+        entries.clear();
+    }
+
+    private synchronized void add( int level, CharSequence content, Throwable error )
+    {
+        entries.add( new Entry( level, content, error ) );
+    }
+
+    public boolean isDebugEnabled()
+    {
+        return delegate.isDebugEnabled();
+    }
+
+    public void debug( CharSequence content )
+    {
+        if ( isDebugEnabled() )
+        {
+            add( DEBUG, content, null );
+        }
+    }
+
+    public void debug( CharSequence content, Throwable error )
+    {
+        if ( isDebugEnabled() )
+        {
+            add( DEBUG, content, error );
+        }
+    }
+
+    public void debug( Throwable error )
+    {
+        if ( isDebugEnabled() )
+        {
+            add( DEBUG, null, error );
+        }
+    }
+
+    public boolean isInfoEnabled()
+    {
+        return delegate.isInfoEnabled();
+    }
+
+    public void info( CharSequence content )
+    {
+        if ( isInfoEnabled() )
+        {
+            add( INFO, content, null );
+        }
+    }
+
+    public void info( CharSequence content, Throwable error )
+    {
+        if ( isInfoEnabled() )
+        {
+            add( INFO, content, error );
+        }
+    }
+
+    public void info( Throwable error )
+    {
+        if ( isInfoEnabled() )
+        {
+            add( INFO, null, error );
+        }
+    }
+
+    public boolean isWarnEnabled()
+    {
+        return delegate.isWarnEnabled();
+    }
+
+    public void warn( CharSequence content )
+    {
+        if ( isWarnEnabled() )
+        {
+            add( WARN, content, null );
+        }
+    }
+
+    public void warn( CharSequence content, Throwable error )
+    {
+        if ( isWarnEnabled() )
+        {
+            add( WARN, content, error );
+        }
+    }
+
+    public void warn( Throwable error )
+    {
+        if ( isWarnEnabled() )
+        {
+            add( WARN, null, error );
+        }
+    }
+
+    public boolean isErrorEnabled()
+    {
+        return delegate.isErrorEnabled();
+    }
+
+    public void error( CharSequence content )
+    {
+        if ( isErrorEnabled() )
+        {
+            add( ERROR, content, null );
+        }
+    }
+
+    public void error( CharSequence content, Throwable error )
+    {
+        if ( isErrorEnabled() )
+        {
+            add( ERROR, content, error );
+        }
+    }
+
+    public void error( Throwable error )
+    {
+        if ( isErrorEnabled() )
+        {
+            add( ERROR, null, error );
+        }
+    }
+
+    /**
+     * A buffered message.
+     */
+    private static final class Entry
+    {
+        private final int level;
+
+        private final CharSequence content;
+
+        private final Throwable error;
+
+        private Entry( int level, CharSequence content, Throwable error )
+        {
+            this.level = level;
+            // the content may be a mutable buffer
+            this.content = content == null ? null : content.toString();
+            this.error = error;
+        }
+
+        private void writeTo( Log log )
+        {
+            switch ( level )
+            {
+                case DEBUG:
+                    if ( content == null )
+                    {
+                        log.debug( error );
+                    }
+                    else if ( error == null )
+                    {
+                        log.debug( content );
+                    }
+                    else
+                    {
+                        log.debug( content, error );
+                    }
+                    break;
+                case INFO:
+                    if ( content == null )
+                    {
+                        log.info( error );
+                    }
+                    else if ( error == null )
+                    {
+                        log.info( content );
+                    }
+                    else
+                    {
+                        log.info( content, error );
+                    }
+                    break;
+                case WARN:
+                    if ( content == null )
+                    {
+                        log.warn( error );
+                    }
+                    else if ( error == null )
+                    {
+                        log.warn( content );
+                    }
+                    else
+                    {
+                        log.warn( content, error );
+                    }
+                    break;
+                default:
+                    if ( content == null )
+                    {
+                        log.error( error );
+                    }
+                    else if ( error == null )
+                    {
+                        log.error( content );
+                    }
+                    else
+                    {
+                        log.error( content, error );
+                    }
+                    break;
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.execution.MavenSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.WeakHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A bounded pool of threads, shared by everything in a Maven session, that runs lookups in parallel.
+ * <p>
+ * Work is only handed to pool threads that are free, and the thread calling {@link #invokeAll(List)} works through
+ * the tasks alongside them. A caller therefore never waits on a task that is not already running, so lookups that
+ * start further lookups from within a pool thread cannot deadlock however small the pool is. Idle threads die
+ * after a minute, so nothing needs to be shut down when the session ends.
+ * </p>
+ *
+ * @since 2.4
+ */
+public final class LookupExecutor
+{
+    /**
+     * The default number of pool threads.
+     */
+    public static final int DEFAULT_THREADS = 5;
+
+    private static final long KEEP_ALIVE_SECONDS = 60L;
+
+    /**
+     * The executors, keyed by the session they belong to.
+     */
+    private static final Map<Object, LookupExecutor> INSTANCES = new WeakHashMap<Object, LookupExecutor>();
+
+    /**
+     * Key used when there is no session.
+     */
+    private static final Object NO_SESSION = new Object();
+
+    private static final AtomicInteger POOL_COUNT = new AtomicInteger();
+
+    private final ThreadPoolExecutor executor;
+
+    private LookupExecutor( int threads )
+    {
+        final String prefix = "versions-lookup-" + POOL_COUNT.incrementAndGet() + "-";
+        executor = new ThreadPoolExecutor( 0, Math.max( 1, threads ), KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+                                           new SynchronousQueue<Runnable>(), new ThreadFactory()
+                                           {
+                                               private final AtomicInteger count = new AtomicInteger();
+
+                                               public Thread newThread( Runnable r )
+                                               {
+                                                   Thread thread = new Thread( r, prefix + count.incrementAndGet() );
+                                                   thread.setDaemon( true );
+                                                   return thread;
+                                               }
+                                           }, new ThreadPoolExecutor.DiscardPolicy() );
+    }
+
+    /**
+     * Returns the executor of the session, creating it the first time it is asked for.
+     *
+     * @param session the session, may be <code>null</code>.
+     * @param threads the number of pool threads, only used when the executor is created.
+     * @return the executor of the session.
+     */
+    public static LookupExecutor getInstance( MavenSession session, int threads )
+    {
+        final Object key = session == null ? NO_SESSION : session;
+        synchronized ( INSTANCES )
+        {
+            LookupExecutor instance = INSTANCES.get( key );
+            if ( instance == null )
+            {
+                instance = new LookupExecutor( threads );
+                INSTANCES.put( key, instance );
+            }
+            return instance;
+        }
+    }
+
+    /**
+     * Returns the maximum number of pool threads.
+     *
+     * @return the maximum number of pool threads.
+     */
+    public int getThreads()
+    {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Runs all the tasks, in parallel where pool threads are free, and returns their results in the same order as
+     * the tasks. If any task fails, the ones that have not completed yet are cancelled.
+     *
+     * @param tasks the tasks to run.
+     * @param <T> the type of result.
+     * @return the results of the tasks.
+     * @throws ExecutionException if a task failed.
+     * @throws InterruptedException if the calling thread was interrupted while waiting.
+     */
+    public <T> List<T> invokeAll( List<? extends Callable<T>> tasks )
+        throws ExecutionException, InterruptedException
+    {
+        final List<FutureTask<T>> futures = new ArrayList<FutureTask<T>>( tasks.size() );
+        for ( Callable<T> task : tasks )
+        {
+            futures.add( new FutureTask<T>( task ) );
+        }
+        final Queue<FutureTask<T>> pending = new ConcurrentLinkedQueue<FutureTask<T>>( futures );
+        final Runnable worker = new Runnable()
+        {
+            public void run()
+            {
+                FutureTask<T> future;
+                while ( ( future = pending.poll() ) != null )
+                {
+                    future.run();
+                }
+            }
+        };
+        try
+        {
+            // any workers that the pool is too busy to take are simply discarded...
+            final int workers = Math.min( futures.size() - 1, executor.getMaximumPoolSize() );
+            for ( int i = 0; i < workers; i++ )
+            {
+                executor.execute( worker );
+            }
+            // ... as the caller works through the pending tasks too
+            worker.run();
+            final List<T> results = new ArrayList<T>( futures.size() );
+            for ( FutureTask<T> future : futures )
+            {
+                results.add( future.get() );
+            }
+            return results;
+        }
+        finally
+        {
+            for ( FutureTask<T> future : futures )
+            {
+                future.cancel( true );
+            }
+        }
+    }
+}
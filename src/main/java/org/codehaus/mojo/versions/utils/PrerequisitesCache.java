@@ -0,0 +1,179 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import org.apache.maven.artifact.ArtifactUtils;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of the version of Maven that each version of an artifact requires, as given by the prerequisites of its
+ * pom. The prerequisites of a released version never change, so those are kept in a file between builds, while those
+ * of snapshots are only remembered until the cache is thrown away. The cache may be used from several threads.
+ *
+ * @since 2.4
+ */
+public final class PrerequisitesCache
+{
+    /**
+     * Where the cache is kept, relative to the base directory of the local repository.
+     */
+    public static final String LOCAL_REPOSITORY_PATH = ".cache/versions-maven-plugin/prerequisites.properties";
+
+    private final File file;
+
+    /**
+     * All the entries, keyed by <code>groupId:artifactId:version</code>.
+     */
+    private final Map<String, String> entries = new ConcurrentHashMap<String, String>();
+
+    /**
+     * The entries of released versions added since the cache was loaded.
+     */
+    private final Map<String, String> added = new ConcurrentHashMap<String, String>();
+
+    /**
+     * Creates a cache, loading the entries already kept in a file.
+     *
+     * @param file The file the cache is kept in, which need not exist yet, or <code>null</code> to only keep the
+     *            cache in memory.
+     * @throws IOException if the file exists but could not be read.
+     */
+    public PrerequisitesCache( File file )
+        throws IOException
+    {
+        this.file = file;
+        if ( file == null )
+        {
+            return;
+        }
+        for ( Map.Entry<Object, Object> entry : load( file ).entrySet() )
+        {
+            entries.put( (String) entry.getKey(), (String) entry.getValue() );
+        }
+    }
+
+    /**
+     * Returns the cache kept in a local repository.
+     *
+     * @param localRepositoryBasedir The base directory of the local repository.
+     * @return The cache.
+     * @throws IOException if the cache exists but could not be read.
+     */
+    public static PrerequisitesCache forLocalRepository( String localRepositoryBasedir )
+        throws IOException
+    {
+        return new PrerequisitesCache( new File( localRepositoryBasedir, LOCAL_REPOSITORY_PATH ) );
+    }
+
+    private static String getKey( String groupId, String artifactId, String version )
+    {
+        return groupId + ':' + artifactId + ':' + version;
+    }
+
+    /**
+     * Returns the version of Maven that a version of an artifact requires.
+     *
+     * @param groupId The groupId of the artifact.
+     * @param artifactId The artifactId of the artifact.
+     * @param version The version of the artifact.
+     * @return The version of Maven required, or <code>null</code> if it is not in the cache.
+     */
+    public String get( String groupId, String artifactId, String version )
+    {
+        return entries.get( getKey( groupId, artifactId, version ) );
+    }
+
+    /**
+     * Records the version of Maven that a version of an artifact requires.
+     *
+     * @param groupId The groupId of the artifact.
+     * @param artifactId The artifactId of the artifact.
+     * @param version The version of the artifact.
+     * @param mavenVersion The version of Maven required.
+     */
+    public void put( String groupId, String artifactId, String version, String mavenVersion )
+    {
+        final String key = getKey( groupId, artifactId, version );
+        entries.put( key, mavenVersion );
+        if ( !ArtifactUtils.isSnapshot( version ) )
+        {
+            added.put( key, mavenVersion );
+        }
+    }
+
+    /**
+     * Writes the entries of released versions added since the cache was loaded to its file, along with any that
+     * other builds have written there in the meantime. Nothing is written if there are no new entries.
+     *
+     * @param log The log to warn when the file could not be replaced atomically.
+     * @throws IOException if the file could not be written.
+     */
+    public void save( Log log )
+        throws IOException
+    {
+        if ( file == null || added.isEmpty() )
+        {
+            return;
+        }
+        final Properties properties = load( file );
+        properties.putAll( added );
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        properties.store( bytes, "Maven prerequisites of released artifacts" );
+        AtomicFileWriter.write( file, bytes.toByteArray(), log );
+        added.clear();
+    }
+
+    /**
+     * Reads the entries kept in a file. A file that is corrupted, for example by a malformed escape, is treated as
+     * empty, so that it is written again rather than failing the build.
+     */
+    private static Properties load( File file )
+        throws IOException
+    {
+        final Properties properties = new Properties();
+        if ( file.isFile() )
+        {
+            final InputStream in = new FileInputStream( file );
+            try
+            {
+                properties.load( in );
+            }
+            catch ( IllegalArgumentException e )
+            {
+                return new Properties();
+            }
+            finally
+            {
+                IOUtil.close( in );
+            }
+        }
+        return properties;
+    }
+}
@@ -22,6 +22,10 @@ package org.codehaus.mojo.versions;
 import junit.framework.TestCase;
 import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
 import org.codehaus.mojo.versions.ordering.NumericVersionComparator;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
 
 /**
  * Basic tests for {@linkplain org.codehaus.mojo.versions.AbstractVersionsUpdaterMojo}.
@@ -55,4 +59,33 @@ public class AbstractVersionsUpdaterMojoTest
         assertTrue( instanceCompare( "5.1.0.0.24", "5.1.0.0.9" ) > 0 );
         assertTrue( instanceCompare( "5.1.0.0.2a4", "5.1.0.0.9" ) < 0 );
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that a file is only written when its content changes.
+     *
+     * @throws Exception when the test fails.
+     */
+    public void testWriteFileSkipsUnchangedContent()
+        throws Exception
+    {
+        File basedir = new File( "target/test-write-file" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        basedir.mkdirs();
+        File pom = new File( basedir, "pom.xml" );
+        FileUtils.fileWrite( pom.getPath(), "UTF-8", "<project>\u00e9</project>" );
+        assertTrue( pom.setLastModified( 1000000000000L ) );
+        AbstractVersionsUpdaterMojo mojo = new AbstractVersionsUpdaterMojo()
+        {
+            protected void update( ModifiedPomXMLEventReader pom )
+            {
+            }
+        };
+
+        mojo.writeFile( pom, new StringBuilder( "<project>\u00e9</project>" ) );
+        assertEquals( 1000000000000L, pom.lastModified() );
+
+        mojo.writeFile( pom, new StringBuilder( "<project>\u00e8</project>" ) );
+        assertEquals( "<project>\u00e8</project>", FileUtils.fileRead( pom, "UTF-8" ) );
+        assertEquals( 1, basedir.list().length );
+    }
+}
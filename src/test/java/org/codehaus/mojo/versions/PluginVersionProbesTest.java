@@ -0,0 +1,166 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Tests that searching the versions of a plugin settles the same versions as probing them one at a time.
+ */
+public class PluginVersionProbesTest
+    extends TestCase
+{
+    private static final String[] MAVEN_VERSIONS = { "2.0", "2.0.6", "2.2.1", "3.0", "3.0.4", "3.1.1", "3.3.9" };
+
+    private final Artifact artifact = mock( Artifact.class );
+
+    public void testSearchMatchesProbingEachVersion()
+    {
+        Random random = new Random( 42 );
+        for ( int run = 0; run < 500; run++ )
+        {
+            int count = random.nextInt( 60 );
+            String[] requires = new String[count];
+            int level = 0;
+            for ( int i = 0; i < count; i++ )
+            {
+                if ( random.nextInt( 8 ) == 0 )
+                {
+                    level = Math.min( MAVEN_VERSIONS.length - 1, level + 1 + random.nextInt( 2 ) );
+                }
+                requires[i] = random.nextInt( 10 ) == 0 ? null : MAVEN_VERSIONS[level];
+            }
+            String spec = MAVEN_VERSIONS[random.nextInt( MAVEN_VERSIONS.length )];
+            String cur = MAVEN_VERSIONS[random.nextInt( MAVEN_VERSIONS.length )];
+            String version = random.nextBoolean() ? null : "0.1";
+
+            CountingProber linearProber = new CountingProber( requires );
+            PluginVersionProbes linear = newProbes( requires, version, spec, cur );
+            for ( int i = count - 1; i >= 0; i-- )
+            {
+                linear.probe( i, linearProber );
+            }
+            linear.settle();
+
+            PluginVersionProbes search = newProbes( requires, version, spec, cur );
+            assertTrue( search.search( new CountingProber( requires ) ) );
+            search.settle();
+
+            assertSameVersions( linear, search );
+        }
+    }
+
+    public void testSearchNeedsFewerProbes()
+    {
+        String[] requires = new String[300];
+        for ( int i = 0; i < requires.length; i++ )
+        {
+            requires[i] = MAVEN_VERSIONS[i * 3 / requires.length + 2];
+        }
+        CountingProber linearProber = new CountingProber( requires );
+        PluginVersionProbes linear = newProbes( requires, null, "2.2.1", "3.0.4" );
+        for ( int i = requires.length - 1; i >= 0; i-- )
+        {
+            linear.probe( i, linearProber );
+        }
+        linear.settle();
+
+        CountingProber searchProber = new CountingProber( requires );
+        PluginVersionProbes search = newProbes( requires, null, "2.2.1", "3.0.4" );
+        assertTrue( search.search( searchProber ) );
+        search.settle();
+
+        assertSameVersions( linear, search );
+        assertEquals( "99", search.getArtifactVersion().toString() );
+        assertEquals( 201, linearProber.probes );
+        assertTrue( String.valueOf( searchProber.probes ), searchProber.probes < 40 );
+    }
+
+    public void testSearchFallsBackWhenNotMonotonic()
+    {
+        String[] requires = { "2.0", "3.3.9", "2.0", "3.3.9", "3.3.9" };
+        CountingProber linearProber = new CountingProber( requires );
+        PluginVersionProbes linear = newProbes( requires, "0.1", "3.0", "3.0" );
+        for ( int i = requires.length - 1; i >= 0; i-- )
+        {
+            linear.probe( i, linearProber );
+        }
+        linear.settle();
+
+        PluginVersionProbes search = newProbes( requires, "0.1", "3.0", "3.0" );
+        assertFalse( search.search( new CountingProber( requires ) ) );
+        search.settle();
+
+        assertSameVersions( linear, search );
+        assertEquals( "2", search.getArtifactVersion().toString() );
+    }
+
+    private PluginVersionProbes newProbes( String[] requires, String version, String spec, String cur )
+    {
+        PluginVersionProbes probes = new PluginVersionProbes( artifact, version, new DefaultArtifactVersion( spec ),
+                                                              new DefaultArtifactVersion( cur ) );
+        ArtifactVersion[] versions = new ArtifactVersion[requires.length];
+        for ( int i = 0; i < versions.length; i++ )
+        {
+            versions[i] = new DefaultArtifactVersion( String.valueOf( i ) );
+        }
+        probes.setNewerVersions( versions );
+        return probes;
+    }
+
+    private static void assertSameVersions( PluginVersionProbes expected, PluginVersionProbes actual )
+    {
+        assertEquals( String.valueOf( expected.getArtifactVersion() ), String.valueOf( actual.getArtifactVersion() ) );
+        assertEquals( expected.getEffectiveVersion(), actual.getEffectiveVersion() );
+        assertEquals( expected.getUpgrades().toString(), actual.getUpgrades().toString() );
+    }
+
+    private static final class CountingProber
+        implements PluginVersionProbes.Prober
+    {
+        private final Map<String, String> requires = new HashMap<String, String>();
+
+        private int probes;
+
+        private CountingProber( String[] requires )
+        {
+            for ( int i = 0; i < requires.length; i++ )
+            {
+                this.requires.put( String.valueOf( i ), requires[i] );
+            }
+        }
+
+        public ArtifactVersion getRequiredMavenVersion( Artifact plugin, String version )
+        {
+            probes++;
+            String mavenVersion = requires.get( version );
+            return mavenVersion == null ? null : new DefaultArtifactVersion( mavenVersion );
+        }
+    }
+}
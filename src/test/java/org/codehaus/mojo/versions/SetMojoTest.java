@@ -0,0 +1,199 @@
+package org.codehaus.mojo.versions;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.ReflectionUtils;
+import org.mockito.InOrder;
+
+import javax.xml.stream.XMLStreamException;
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests processing the poms of a reactor in parallel with {@link SetMojo}.
+ */
+public class SetMojoTest
+    extends TestCase
+{
+    private static final String[] MODULES = { "", "module-a", "module-b", "module-c", "module-d" };
+
+    /**
+     * Tests that processing the poms in parallel changes them exactly as processing them one at a time does.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testParallelPomsMatchSequential()
+        throws Exception
+    {
+        File sequentialDir = copyFixture( "sequential" );
+        File parallelDir = copyFixture( "parallel" );
+
+        newMojo( false ).processFiles( getPoms( sequentialDir ) );
+        newMojo( true ).processFiles( getPoms( parallelDir ) );
+
+        File fixture = new File( getClass().getResource( "SetMojoTest" ).getPath() );
+        for ( String module : MODULES )
+        {
+            String original = FileUtils.fileRead( new File( new File( fixture, module ), "pom.xml" ), "UTF-8" );
+            String sequential = FileUtils.fileRead( new File( new File( sequentialDir, module ), "pom.xml" ), "UTF-8" );
+            String parallel = FileUtils.fileRead( new File( new File( parallelDir, module ), "pom.xml" ), "UTF-8" );
+            assertFalse( module, original.equals( sequential ) );
+            assertEquals( module, sequential, parallel );
+        }
+        assertTrue( FileUtils.fileRead( new File( sequentialDir, "module-c/pom.xml" ), "UTF-8" ).contains(
+            "<groupId>org.other</groupId>\n      <artifactId>module-b</artifactId>\n      <version>1.0</version>" ) );
+    }
+
+    /**
+     * Tests that once a pom fails no more poms are started, that the messages of the poms are logged in reactor order,
+     * that later failures are logged and that the first failure in reactor order is thrown.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testParallelFailureStopsNewPoms()
+        throws Exception
+    {
+        File basedir = copyFixture( "failure" );
+        final MojoFailureException firstFailure = new MojoFailureException( "module-a failed" );
+        final MojoExecutionException laterFailure = new MojoExecutionException( "module-b failed" );
+        final CountDownLatch laterFailed = new CountDownLatch( 1 );
+        final Set<String> started = Collections.synchronizedSet( new HashSet<String>() );
+        SetMojo mojo = new SetMojo()
+        {
+            protected void update( ModifiedPomXMLEventReader pom )
+                throws MojoExecutionException, MojoFailureException, XMLStreamException
+            {
+                String artifactId = PomHelper.getRawModelCoordinates( pom ).getArtifactId();
+                started.add( artifactId );
+                getLog().info( "Updating " + artifactId );
+                if ( "module-a".equals( artifactId ) )
+                {
+                    // fail after module-b, which comes later in the reactor
+                    try
+                    {
+                        laterFailed.await( 10, TimeUnit.SECONDS );
+                    }
+                    catch ( InterruptedException e )
+                    {
+                        throw new MojoExecutionException( e.getMessage(), e );
+                    }
+                    getLog().info( "Failing " + artifactId );
+                    throw firstFailure;
+                }
+                if ( "module-b".equals( artifactId ) )
+                {
+                    laterFailed.countDown();
+                    throw laterFailure;
+                }
+            }
+        };
+        configure( mojo, true );
+        Log log = mock( Log.class );
+        when( log.isInfoEnabled() ).thenReturn( true );
+        when( log.isWarnEnabled() ).thenReturn( true );
+        when( log.isErrorEnabled() ).thenReturn( true );
+        mojo.setLog( log );
+
+        try
+        {
+            mojo.processFiles( getPoms( basedir ) );
+            fail( "module-a should have failed" );
+        }
+        catch ( MojoFailureException e )
+        {
+            assertSame( firstFailure, e );
+        }
+
+        assertEquals( new HashSet<String>( Arrays.asList( "parent", "module-a", "module-b" ) ), started );
+        InOrder inOrder = inOrder( log );
+        inOrder.verify( log ).info( "Updating parent" );
+        inOrder.verify( log ).info( "Updating module-a" );
+        inOrder.verify( log ).info( "Failing module-a" );
+        inOrder.verify( log ).info( "Updating module-b" );
+        inOrder.verify( log ).error( "Processing " + new File( basedir, "module-b/pom.xml" )
+            + " also failed: module-b failed", laterFailure );
+        inOrder.verify( log ).warn( "Skipped 2 pom(s) after an earlier pom failed" );
+    }
+
+    private File copyFixture( String name )
+        throws Exception
+    {
+        File basedir = new File( "target/test-set/" + getName() + "/" + name ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        FileUtils.copyDirectoryStructure( new File( getClass().getResource( "SetMojoTest" ).getPath() ), basedir );
+        return basedir;
+    }
+
+    private static Set<File> getPoms( File basedir )
+    {
+        Set<File> poms = new LinkedHashSet<File>();
+        for ( String module : MODULES )
+        {
+            poms.add( new File( new File( basedir, module ), "pom.xml" ) );
+        }
+        return poms;
+    }
+
+    private static SetMojo newMojo( boolean processInParallel )
+        throws Exception
+    {
+        SetMojo mojo = new SetMojo();
+        configure( mojo, processInParallel );
+        mojo.addChange( "org.myorg", "parent", "1.0", "2.0" );
+        mojo.addChange( "org.myorg", "module-a", "1.0", "2.0" );
+        mojo.addChange( "org.myorg", "module-b", "1.0", "2.0" );
+        mojo.addChange( "org.myorg", "module-c", "1.0", "2.0" );
+        mojo.addChange( "org.myorg", "module-d", "1.0", "2.0" );
+        return mojo;
+    }
+
+    private static void configure( SetMojo mojo, boolean processInParallel )
+        throws Exception
+    {
+        ReflectionUtils.setVariableValueInObject( mojo, "processParent", Boolean.TRUE );
+        ReflectionUtils.setVariableValueInObject( mojo, "processProject", Boolean.TRUE );
+        ReflectionUtils.setVariableValueInObject( mojo, "processDependencies", Boolean.TRUE );
+        ReflectionUtils.setVariableValueInObject( mojo, "processPlugins", Boolean.TRUE );
+        ReflectionUtils.setVariableValueInObject( mojo, "generateBackupPoms", Boolean.FALSE );
+        ReflectionUtils.setVariableValueInObject( mojo, "processInParallel", processInParallel );
+        // one thread besides the caller, so that the poms are started two at a time in reactor order
+        ReflectionUtils.setVariableValueInObject( mojo, "lookupThreads", 1 );
+        // a session of its own, so that the threads are not shared with other tests
+        mojo.session = mock( MavenSession.class );
+    }
+}
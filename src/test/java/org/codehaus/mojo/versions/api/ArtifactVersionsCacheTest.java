@@ -0,0 +1,62 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.versioning.ArtifactVersion;
+import org.apache.maven.artifact.versioning.DefaultArtifactVersion;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link ArtifactVersionsCache}.
+ */
+public class ArtifactVersionsCacheTest
+    extends TestCase
+{
+    public void testEntriesAreReplacedInPlace()
+        throws Exception
+    {
+        File basedir = new File( "target/test-artifact-versions-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        ArtifactVersionsCache cache = new ArtifactVersionsCache( basedir, 60000L, false, new SystemStreamLog() );
+        Artifact artifact = mock( Artifact.class );
+        when( artifact.getGroupId() ).thenReturn( "org.myorg" );
+        when( artifact.getArtifactId() ).thenReturn( "my-artifact" );
+
+        assertNull( cache.get( artifact, null ) );
+        cache.put( artifact, null, Arrays.<ArtifactVersion>asList( new DefaultArtifactVersion( "1.0" ) ) );
+        cache.put( artifact, null, Arrays.<ArtifactVersion>asList( new DefaultArtifactVersion( "1.0" ),
+                                                                    new DefaultArtifactVersion( "1.1" ) ) );
+
+        List<ArtifactVersion> versions = cache.get( artifact, null );
+        assertEquals( "[1.0, 1.1]", versions.toString() );
+        String[] files = new File( basedir, ".cache/versions-maven-plugin/org/myorg/my-artifact" ).list();
+        assertEquals( Arrays.asList( "versions-local.properties" ), Arrays.asList( files ) );
+    }
+}
@@ -68,6 +68,42 @@ public class ArtifactVersionsTest
             instance.getNewestVersion( new DefaultArtifactVersion( "1.1" ), new DefaultArtifactVersion( "3.0" ) ) );
     }
 
+    public void testBoundsAndSnapshots()
+        throws Exception
+    {
+        ArtifactVersion[] versions =
+            new ArtifactVersion[]{new DefaultArtifactVersion( "2.0" ), new DefaultArtifactVersion( "1.0" ),
+                new DefaultArtifactVersion( "1.1-SNAPSHOT" ), new DefaultArtifactVersion( "1.1" ),
+                new DefaultArtifactVersion( "2.1-SNAPSHOT" ),};
+        final DefaultArtifact artifact =
+            new DefaultArtifact( "group", "artifact", VersionRange.createFromVersionSpec( "1.0" ), "foo", "bar",
+                                 "jar", new DefaultArtifactHandler() );
+        ArtifactVersions instance =
+            new ArtifactVersions( artifact, Arrays.asList( versions ), new MavenVersionComparator() );
+        assertArrayEquals(
+            new ArtifactVersion[]{new DefaultArtifactVersion( "1.0" ), new DefaultArtifactVersion( "1.1" ),
+                new DefaultArtifactVersion( "2.0" ),}, instance.getVersions( false ) );
+        assertArrayEquals( new ArtifactVersion[]{new DefaultArtifactVersion( "1.1-SNAPSHOT" ),
+            new DefaultArtifactVersion( "1.1" ), new DefaultArtifactVersion( "2.0" ),},
+                           instance.getVersions( null, new DefaultArtifactVersion( "1.0" ),
+                                                 new DefaultArtifactVersion( "2.0" ), true, false, true ) );
+        assertArrayEquals( new ArtifactVersion[]{new DefaultArtifactVersion( "1.0" ),
+            new DefaultArtifactVersion( "1.1" ),},
+                           instance.getVersions( null, new DefaultArtifactVersion( "1.0" ),
+                                                 new DefaultArtifactVersion( "2.0" ), false, true, false ) );
+        assertArrayEquals( new ArtifactVersion[0],
+                           instance.getVersions( null, new DefaultArtifactVersion( "2.0" ),
+                                                 new DefaultArtifactVersion( "1.0" ), true, true, true ) );
+        assertEquals( "2.1-SNAPSHOT", instance.getNewestVersion( null, null, null, true, true, true ).toString() );
+        assertEquals( "2.0", instance.getNewestVersion( null, null, null, false, true, true ).toString() );
+        assertEquals( "1.1-SNAPSHOT", instance.getOldestVersion( null, new DefaultArtifactVersion( "1.0" ), null,
+                                                                 true, false, true ).toString() );
+        assertNull( instance.getOldestVersion( null, new DefaultArtifactVersion( "2.0" ), null, false, false,
+                                               true ) );
+        instance.getVersions( true )[0] = null;
+        assertEquals( "1.0", instance.getVersions( true )[0].toString() );
+    }
+
     private static void assertArrayEquals( ArtifactVersion[] expected, ArtifactVersion[] actual )
     {
         try
@@ -25,6 +25,7 @@ import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.factory.DefaultArtifactFactory;
 import org.apache.maven.artifact.manager.DefaultWagonManager;
 import org.apache.maven.artifact.manager.WagonConfigurationException;
+import org.apache.maven.artifact.metadata.ArtifactMetadataRetrievalException;
 import org.apache.maven.artifact.metadata.ArtifactMetadataSource;
 import org.apache.maven.artifact.repository.ArtifactRepository;
 import org.apache.maven.artifact.repository.DefaultArtifactRepository;
@@ -45,10 +46,16 @@ import org.apache.maven.wagon.repository.Repository;
 import org.apache.maven.execution.MavenSession;
 import org.codehaus.mojo.versions.Property;
 import org.codehaus.mojo.versions.ordering.VersionComparators;
+import org.codehaus.plexus.util.FileUtils;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.regex.Pattern;
 
 import static java.util.Arrays.asList;
@@ -57,9 +64,12 @@ import static org.junit.matchers.JUnitMatchers.hasItem;
 import static org.junit.matchers.JUnitMatchers.hasItems;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyList;
+import static org.mockito.Mockito.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.same;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * Test {@link DefaultVersionsHelper}
@@ -130,6 +140,125 @@ public class DefaultVersionsHelperTest
         assertThat( actual, hasItems( one, two, three, illegal ) );
     }
     
+    public void testCachedVersionsReused() throws Exception
+    {
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        final Artifact artifact = mock( Artifact.class );
+        when( artifact.getGroupId() ).thenReturn( "other.company" );
+        when( artifact.getArtifactId() ).thenReturn( "artifact-cached" );
+
+        final List<ArtifactVersion> artifactVersions = new ArrayList<ArtifactVersion>();
+        artifactVersions.add( new DefaultArtifactVersion( "1.0" ) );
+        artifactVersions.add( new DefaultArtifactVersion( "1.1" ) );
+
+        when( metadataSource.retrieveAvailableVersions( same( artifact ), any( ArtifactRepository.class ), anyList() ) ).thenReturn( artifactVersions );
+
+        final File localRepository = File.createTempFile( "local-repo", "" );
+        assertTrue( localRepository.delete() && localRepository.mkdirs() );
+        try
+        {
+            for ( int i = 0; i < 2; i++ )
+            {
+                DefaultVersionsHelper helper = (DefaultVersionsHelper) createHelper( metadataSource, localRepository );
+                helper.setVersionsCache( 60, false );
+
+                final List<ArtifactVersion> actual =
+                    asList( helper.lookupArtifactVersions( artifact, true ).getVersions( true ) );
+
+                assertEquals( 2, actual.size() );
+                assertEquals( "1.1", actual.get( 1 ).toString() );
+            }
+            verify( metadataSource, times( 1 ) ).retrieveAvailableVersions( same( artifact ),
+                                                                            any( ArtifactRepository.class ),
+                                                                            anyList() );
+
+            DefaultVersionsHelper helper = (DefaultVersionsHelper) createHelper( metadataSource, localRepository );
+            helper.setVersionsCache( 60, true );
+            helper.lookupArtifactVersions( artifact, true );
+            verify( metadataSource, times( 2 ) ).retrieveAvailableVersions( same( artifact ),
+                                                                            any( ArtifactRepository.class ),
+                                                                            anyList() );
+        }
+        finally
+        {
+            FileUtils.deleteDirectory( localRepository );
+        }
+    }
+
+    public void testConcurrentLookupsCoalesced() throws Exception
+    {
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        final Artifact artifact = mock( Artifact.class );
+        when( artifact.getGroupId() ).thenReturn( "other.company" );
+        when( artifact.getArtifactId() ).thenReturn( "artifact-coalesced" );
+
+        final CountDownLatch retrieving = new CountDownLatch( 1 );
+        final CountDownLatch release = new CountDownLatch( 1 );
+        when( metadataSource.retrieveAvailableVersions( same( artifact ), any( ArtifactRepository.class ), anyList() ) ).thenAnswer( new Answer<List<ArtifactVersion>>()
+        {
+            public List<ArtifactVersion> answer( InvocationOnMock invocation )
+                throws Throwable
+            {
+                retrieving.countDown();
+                release.await();
+                return new ArrayList<ArtifactVersion>( asList( new DefaultArtifactVersion( "1.0" ) ) );
+            }
+        } );
+
+        final DefaultVersionsHelper helper = (DefaultVersionsHelper) createHelper( metadataSource );
+        final List<ArtifactVersions> results = new CopyOnWriteArrayList<ArtifactVersions>();
+        final Runnable lookup = new Runnable()
+        {
+            public void run()
+            {
+                try
+                {
+                    results.add( helper.lookupArtifactVersions( artifact, true ) );
+                }
+                catch ( ArtifactMetadataRetrievalException e )
+                {
+                    throw new RuntimeException( e );
+                }
+            }
+        };
+        Thread first = new Thread( lookup );
+        first.start();
+        retrieving.await();
+        Thread second = new Thread( lookup );
+        second.start();
+        while ( helper.getCoalescedRetrievalCount() == 0 )
+        {
+            Thread.sleep( 10 );
+        }
+        release.countDown();
+        first.join();
+        second.join();
+
+        assertEquals( 2, results.size() );
+        assertEquals( 2, helper.getRetrievalCount() );
+        assertEquals( 1, helper.getCoalescedRetrievalCount() );
+        verify( metadataSource, times( 1 ) ).retrieveAvailableVersions( same( artifact ),
+                                                                        any( ArtifactRepository.class ), anyList() );
+    }
+
+    public void testInvalidIgnoreVersionTypesWarnedOnce() throws Exception
+    {
+        final ArtifactMetadataSource metadataSource = mock( ArtifactMetadataSource.class );
+        when( metadataSource.retrieveAvailableVersions( any( Artifact.class ), any( ArtifactRepository.class ), anyList() ) ).thenReturn( new ArrayList<ArtifactVersion>() );
+
+        VersionsHelper helper = createHelper( metadataSource );
+        for ( String artifactId : asList( "artifact-one", "artifact-two", "artifact-one" ) )
+        {
+            final Artifact artifact = mock( Artifact.class );
+            when( artifact.getGroupId() ).thenReturn( "com.mycompany.maven" );
+            when( artifact.getArtifactId() ).thenReturn( artifactId );
+            helper.lookupArtifactVersions( artifact, true );
+        }
+
+        // one for the global ignoreVersion and one for the com.mycompany.maven rule
+        verify( helper.getLog(), times( 2 ) ).warn( anyString() );
+    }
+
     public void testWildcardMatching()
         throws Exception
     {
@@ -190,8 +319,26 @@ public class DefaultVersionsHelperTest
         return helper;
     }
 
+    private VersionsHelper createHelper( ArtifactMetadataSource metadataSource, File localRepository )
+        throws Exception
+    {
+        final String resourcePath = "/" + getClass().getPackage().getName().replace( '.', '/' ) + "/rules.xml";
+        final String rulesUri = getClass().getResource( resourcePath ).toExternalForm();
+        return createHelper( rulesUri, metadataSource,
+                             new DefaultArtifactRepository( "local", localRepository.toURI().toURL().toExternalForm(),
+                                                            new DefaultRepositoryLayout() ) );
+    }
+
     private VersionsHelper createHelper( String rulesUri, ArtifactMetadataSource metadataSource )
         throws MojoExecutionException
+    {
+        return createHelper( rulesUri, metadataSource,
+                             new DefaultArtifactRepository( "", "", new DefaultRepositoryLayout() ) );
+    }
+
+    private VersionsHelper createHelper( String rulesUri, ArtifactMetadataSource metadataSource,
+                                         ArtifactRepository localRepository )
+        throws MojoExecutionException
     {
         final DefaultWagonManager wagonManager = new DefaultWagonManager()
         {
@@ -204,8 +351,7 @@ public class DefaultVersionsHelperTest
 
         VersionsHelper helper =
             new DefaultVersionsHelper( new DefaultArtifactFactory(), new DefaultArtifactResolver(), metadataSource, new ArrayList(),
-                                       new ArrayList(),
-                                       new DefaultArtifactRepository( "", "", new DefaultRepositoryLayout() ),
+                                       new ArrayList(), localRepository,
                                        wagonManager, new Settings(), "", rulesUri, mock( Log.class ), mock( MavenSession.class ),
                                        new DefaultPathTranslator());
         return helper;
@@ -0,0 +1,82 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.mojo.versions.model.IgnoreVersion;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test {@link IgnoredVersionsMatcher}
+ */
+public class IgnoredVersionsMatcherTest
+    extends TestCase
+{
+    public void testExactAndRegex()
+    {
+        IgnoredVersionsMatcher matcher =
+            newMatcher( "exact", "1.0", "regex", ".*-alpha", "regex", ".*-beta-\\d+", "exact", ".*-rc" );
+
+        assertTrue( matcher.matches( "1.0" ) );
+        assertTrue( matcher.matches( "2.0-alpha" ) );
+        assertTrue( matcher.matches( "2.0-beta-12" ) );
+        assertTrue( matcher.matches( ".*-rc" ) );
+        assertFalse( matcher.matches( "1.0.1" ) );
+        assertFalse( matcher.matches( "2.0-alpha-1" ) );
+        assertFalse( matcher.matches( "2.0-rc" ) );
+        assertEquals( ".*-beta-\\d+", matcher.findMatch( "2.0-beta-12" ).getVersion() );
+        assertNull( matcher.findMatch( "2.0" ) );
+    }
+
+    public void testRegexesThatCannotBeCombined()
+    {
+        IgnoredVersionsMatcher matcher =
+            newMatcher( "regex", "(\\d)\\.\\1", "regex", "\\Q1.*", "regex", "(?i).*-SNAPSHOT", "regex", "2\\..*" );
+
+        assertTrue( matcher.matches( "3.3" ) );
+        assertFalse( matcher.matches( "3.4" ) );
+        assertTrue( matcher.matches( "1.*" ) );
+        assertFalse( matcher.matches( "1.0" ) );
+        assertTrue( matcher.matches( "1.0-snapshot" ) );
+        assertTrue( matcher.matches( "2.5" ) );
+    }
+
+    public void testEmpty()
+    {
+        IgnoredVersionsMatcher matcher = newMatcher();
+        assertTrue( matcher.isEmpty() );
+        assertFalse( matcher.matches( "1.0" ) );
+    }
+
+    private static IgnoredVersionsMatcher newMatcher( String... typesAndVersions )
+    {
+        List<IgnoreVersion> ignoredVersions = new ArrayList<IgnoreVersion>();
+        for ( int i = 0; i < typesAndVersions.length; i += 2 )
+        {
+            IgnoreVersion ignoreVersion = new IgnoreVersion();
+            ignoreVersion.setType( typesAndVersions[i] );
+            ignoreVersion.setVersion( typesAndVersions[i + 1] );
+            ignoredVersions.add( ignoreVersion );
+        }
+        return new IgnoredVersionsMatcher( ignoredVersions );
+    }
+}
@@ -1,17 +1,36 @@
 package org.codehaus.mojo.versions.api;
 
 import junit.framework.TestCase;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.mojo.versions.change.VersionChange;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.mojo.versions.utils.LookupExecutor;
+import org.codehaus.plexus.util.FileUtils;
+import org.codehaus.plexus.util.IOUtil;
+import org.codehaus.plexus.util.ReaderFactory;
 import org.codehaus.stax2.XMLInputFactory2;
 
 import javax.xml.stream.XMLInputFactory;
 import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Reader;
 import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 /**
  * Tests the methods of {@link PomHelper}.
@@ -76,6 +95,160 @@ public class PomHelperTest
         assertNotSame( oldVersion, newVersion );
     }
 
+    /**
+     * Tests that applying a batch of changes in one pass gives the same pom as the implementation that applied them
+     * one at a time did, including chained changes, version ranges, <code>${project.groupId}</code> and plugins with
+     * no groupId. The expected pom was produced by that implementation.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testBatchChangesMatchSequentialChanges()
+        throws Exception
+    {
+        List<VersionChange> changes =
+            Arrays.asList( new VersionChange( "org.myorg", "module-a", "1.0", "1.1" ),
+                           new VersionChange( "org.myorg", "module-b", "1.5", "1.6" ),
+                           new VersionChange( "org.myorg", "module-a", "1.1", "1.2" ),
+                           new VersionChange( "org.myorg", "module-c", "1.0", "2.0" ),
+                           new VersionChange( "org.apache.maven.plugins", "maven-myorg-plugin", "1.0", "1.1" ),
+                           new VersionChange( "org.myorg", "myorg-maven-plugin", "1.0", "2.0" ),
+                           new VersionChange( "org.myorg", "myorg-maven-plugin", "2.0", "3.0" ) );
+        String expected = readResource( "PomHelperTest.batchChanges.expected.pom.xml" );
+
+        ModifiedPomXMLEventReader batch = readPom( "PomHelperTest.batchChanges.pom.xml" );
+        Set<VersionChange> dependencyChanges = PomHelper.setDependencyVersions( batch, changes );
+        Set<VersionChange> pluginChanges = PomHelper.setPluginVersions( batch, changes );
+
+        assertEquals( expected, batch.asStringBuilder().toString() );
+        assertEquals( new HashSet<VersionChange>( changes.subList( 0, 3 ) ), dependencyChanges );
+        assertEquals( new HashSet<VersionChange>( changes.subList( 4, 7 ) ), pluginChanges );
+
+        ModifiedPomXMLEventReader sequential = readPom( "PomHelperTest.batchChanges.pom.xml" );
+        for ( VersionChange change : changes )
+        {
+            boolean dependencyChanged =
+                PomHelper.setDependencyVersion( sequential, change.getGroupId(), change.getArtifactId(),
+                                                change.getOldVersion(), change.getNewVersion() );
+            boolean pluginChanged = PomHelper.setPluginVersion( sequential, change.getGroupId(), change.getArtifactId(),
+                                                                change.getOldVersion(), change.getNewVersion() );
+            assertEquals( change.toString(), dependencyChanges.contains( change ), dependencyChanged );
+            assertEquals( change.toString(), pluginChanges.contains( change ), pluginChanged );
+        }
+        assertEquals( expected, sequential.asStringBuilder().toString() );
+    }
+
+    private String readResource( String resource )
+        throws Exception
+    {
+        URL url = getClass().getResource( resource );
+        return PomHelper.readXmlFile( new File( url.getPath() ) ).toString();
+    }
+
+    private ModifiedPomXMLEventReader readPom( String resource )
+        throws Exception
+    {
+        URL url = getClass().getResource( resource );
+        StringBuilder input = PomHelper.readXmlFile( new File( url.getPath() ) );
+
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+
+        return new ModifiedPomXMLEventReader( input, inputFactory );
+    }
+
+    /**
+     * Tests that reading the reactor in parallel gives the same models, in the same order, as reading it one module at a
+     * time.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testParallelReactorModelsMatchSequential()
+        throws Exception
+    {
+        File basedir = new File( "target/test-reactors/" + getName() ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        writeModule( basedir, "root", "c", "a", "b" );
+        writeModule( new File( basedir, "a" ), "a", "a2", "a1" );
+        writeModule( new File( basedir, "a/a1" ), "a1" );
+        writeModule( new File( basedir, "a/a2" ), "a2", "deep" );
+        writeModule( new File( basedir, "a/a2/deep" ), "deep" );
+        writeModule( new File( basedir, "b" ), "b" );
+        writeModule( new File( basedir, "c" ), "c", "c1" );
+        writeModule( new File( basedir, "c/c1" ), "c1" );
+
+        MavenProject project = mock( MavenProject.class );
+        when( project.getFile() ).thenReturn( new File( basedir, "pom.xml" ) );
+        when( project.getBasedir() ).thenReturn( basedir );
+        Log log = new SystemStreamLog();
+
+        Map<String, Model> sequential = PomHelper.getReactorModels( project, log );
+        Map<String, Model> parallel =
+            PomHelper.getReactorModels( project, log, LookupExecutor.getInstance( mock( MavenSession.class ), 4 ) );
+
+        assertEquals( Arrays.asList( "", "a", "b", "c", "a/a1", "a/a2", "a/a2/deep", "c/c1" ),
+                      new ArrayList<String>( sequential.keySet() ) );
+        assertEquals( new ArrayList<String>( sequential.keySet() ), new ArrayList<String>( parallel.keySet() ) );
+        for ( Map.Entry<String, Model> entry : sequential.entrySet() )
+        {
+            assertEquals( PomHelper.getGAV( entry.getValue() ), PomHelper.getGAV( parallel.get( entry.getKey() ) ) );
+        }
+    }
+
+    private static void writeModule( File dir, String artifactId, String... modules )
+        throws Exception
+    {
+        StringBuilder pom = new StringBuilder( "<project><modelVersion>4.0.0</modelVersion>" );
+        pom.append( "<groupId>org.myorg</groupId><artifactId>" ).append( artifactId ).append( "</artifactId>" );
+        pom.append( "<version>1.0</version><modules>" );
+        for ( String module : modules )
+        {
+            pom.append( "<module>" ).append( module ).append( "</module>" );
+        }
+        pom.append( "</modules></project>" );
+        dir.mkdirs();
+        FileUtils.fileWrite( new File( dir, "pom.xml" ).getPath(), "UTF-8", pom.toString() );
+    }
+
+    /**
+     * Tests that {@link PomHelper#readXmlFile(File)} detects encodings as {@link ReaderFactory#newXmlReader(File)} does.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testReadXmlFileMatchesXmlReader()
+        throws Exception
+    {
+        File basedir = new File( "target/test-encodings" ).getAbsoluteFile();
+        basedir.mkdirs();
+        byte[][] samples = new byte[][]{ "<project>\u00e9</project>".getBytes( "UTF-8" ),
+            ( "\uFEFF<?xml version=\"1.0\" encoding=\"UTF-8\"?><project>\u00e9</project>" ).getBytes( "UTF-8" ),
+            "<?xml version='1.0' encoding='ISO-8859-1'?><project>\u00e9</project>".getBytes( "ISO-8859-1" ),
+            "<?xml version=\"1.0\" encoding=\"UTF-16\"?><project>\u00e9</project>".getBytes( "UTF-16" ),
+            new byte[0] };
+        for ( int i = 0; i < samples.length; i++ )
+        {
+            File file = new File( basedir, i + ".xml" );
+            FileOutputStream out = new FileOutputStream( file );
+            try
+            {
+                out.write( samples[i] );
+            }
+            finally
+            {
+                out.close();
+            }
+            Reader reader = ReaderFactory.newXmlReader( file );
+            try
+            {
+                assertEquals( file.getName(), IOUtil.toString( reader ),
+                              PomHelper.readXmlFile( file ).toString() );
+            }
+            finally
+            {
+                reader.close();
+            }
+        }
+    }
+
     public void testGroupIdNotOnChildPom()
             throws Exception
     {
@@ -87,6 +260,32 @@ public class PomHelperTest
         assertEquals("org.myorg", PomHelper.getGroupId(model));
     }
 
+    /**
+     * Tests that the coordinates read from the index match those of the raw model.
+     *
+     * @throws Exception if the test fails.
+     */
+    public void testRawModelCoordinatesMatchRawModel()
+        throws Exception
+    {
+        for ( String resource : new String[]{ "PomHelperTest.noGroupIdOnChild.pom.xml",
+            "PomHelperTest.batchChanges.pom.xml", "PomHelperTest.testLongProperties.pom.xml" } )
+        {
+            ModifiedPomXMLEventReader pom = readPom( resource );
+            Model expected = PomHelper.getRawModel( pom );
+            Model actual = PomHelper.getRawModelCoordinates( pom );
+
+            assertEquals( resource, PomHelper.getGAV( expected ), PomHelper.getGAV( actual ) );
+            assertEquals( resource, expected.getPackaging(), actual.getPackaging() );
+            assertEquals( resource, expected.getParent() == null, actual.getParent() == null );
+            if ( expected.getParent() != null )
+            {
+                assertEquals( resource, expected.getParent().getId(), actual.getParent().getId() );
+                assertEquals( resource, expected.getParent().getRelativePath(), actual.getParent().getRelativePath() );
+            }
+        }
+    }
+
     public void test_Version_Version_Equal()
         throws Exception
     {
@@ -0,0 +1,237 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Prerequisites;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Tests {@link PomPrerequisites}.
+ */
+public class PomPrerequisitesTest
+    extends TestCase
+{
+    public void testReadsOnlyTheProjectLevelElements()
+        throws Exception
+    {
+        String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n"
+            + "  <parent>\n    <groupId>org.myorg</groupId>\n    <artifactId>parent</artifactId>\n"
+            + "    <version> 2 </version>\n  </parent>\n"
+            + "  <artifactId>my-plugin</artifactId>\n  <version>1.0</version>\n"
+            + "  <properties>\n    <mavenVersion>2.2.1</mavenVersion>\n  </properties>\n"
+            + "  <prerequisites>\n    <maven>${mavenVersion}</maven>\n  </prerequisites>\n"
+            + "  <profiles><profile><properties><mavenVersion>3.0</mavenVersion></properties></profile></profiles>\n"
+            + "  <build><plugins><plugin><version>9</version></plugin></plugins></build>\n"
+            + "</project>\n";
+        PomPrerequisites prerequisites = PomPrerequisites.read( new ByteArrayInputStream( pom.getBytes( "UTF-8" ) ) );
+
+        assertEquals( "${mavenVersion}", prerequisites.getMavenVersion() );
+        assertTrue( prerequisites.hasParent() );
+        assertEquals( "org.myorg", prerequisites.getParentGroupId() );
+        assertEquals( "parent", prerequisites.getParentArtifactId() );
+        assertEquals( "2", prerequisites.getParentVersion() );
+        assertEquals( 1, prerequisites.getProperties().size() );
+        assertEquals( "2.2.1", prerequisites.getProperties().get( "mavenVersion" ) );
+    }
+
+    public void testNoPrerequisites()
+        throws Exception
+    {
+        String pom = "<project><artifactId>my-plugin</artifactId><version>1.0</version></project>";
+        PomPrerequisites prerequisites = PomPrerequisites.read( new ByteArrayInputStream( pom.getBytes( "UTF-8" ) ) );
+
+        assertNull( prerequisites.getMavenVersion() );
+        assertFalse( prerequisites.hasParent() );
+        assertTrue( prerequisites.getProperties().isEmpty() );
+    }
+
+    public void testOwnPrerequisitesNeedNoParent()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        File pom = writePom( "own", "parent", "<prerequisites><maven>3.0</maven></prerequisites>" );
+
+        assertEquals( "3.0", PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+        assertEquals( 0, resolver.resolved );
+    }
+
+    public void testInheritsTheNearestPrerequisites()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "grandparent", null, "<prerequisites><maven>3.3.9</maven></prerequisites>" );
+        resolver.add( "parent", "grandparent", "<prerequisites><maven>2.2.1</maven></prerequisites>" );
+        File pom = writePom( "child", "parent", "" );
+
+        assertEquals( "2.2.1", PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+        assertEquals( 1, resolver.resolved );
+    }
+
+    public void testBlankPrerequisitesAreNotInherited()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "parent", null, "<prerequisites><maven>3.0</maven></prerequisites>" );
+        File pom = writePom( "blank", "parent", "<prerequisites><maven> </maven></prerequisites>" );
+
+        assertEquals( "3.0", PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+    }
+
+    public void testChildPropertiesTakePrecedence()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "parent", null, "<properties><mavenVersion>3.0</mavenVersion></properties>"
+            + "<prerequisites><maven>${mavenVersion}</maven></prerequisites>" );
+        File pom = writePom( "override", "parent", "<properties><mavenVersion>2.2.1</mavenVersion></properties>" );
+
+        assertEquals( "2.2.1", PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+    }
+
+    public void testPropertiesAreLookedUpInTheParents()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "grandparent", null, "<properties><mavenVersion>3.0.4</mavenVersion></properties>" );
+        resolver.add( "parent", "grandparent", "<properties><maven>${mavenVersion}</maven></properties>" );
+        File pom = writePom( "lookup", "parent", "<prerequisites><maven>${maven}</maven></prerequisites>" );
+
+        assertEquals( "3.0.4", PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+        assertEquals( 2, resolver.resolved );
+    }
+
+    public void testDefaultsWithoutPrerequisites()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "parent", null, "<properties><mavenVersion>3.0</mavenVersion></properties>" );
+        File pom = writePom( "none", "parent", "" );
+
+        assertEquals( PomPrerequisites.DEFAULT_MAVEN_VERSION, PomPrerequisites.getRequiredMavenVersion( pom,
+                                                                                                           resolver ) );
+    }
+
+    public void testFallsBackOnUnknownProperties()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "parent", null, "" );
+        File pom = writePom( "unknown", "parent", "<prerequisites><maven>${project.version}</maven></prerequisites>" );
+
+        assertNull( PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+        assertEquals( 1, resolver.resolved );
+    }
+
+    public void testFallsBackOnUnreadablePoms()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        File pom = new File( BASEDIR, "missing.xml" );
+
+        assertNull( PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+    }
+
+    public void testGivesUpOnLongParentChains()
+        throws Exception
+    {
+        MapParentResolver resolver = new MapParentResolver();
+        resolver.add( "cycle", "cycle", "" );
+        File pom = writePom( "endless", "cycle", "" );
+
+        assertNull( PomPrerequisites.getRequiredMavenVersion( pom, resolver ) );
+        assertEquals( PomPrerequisites.MAX_PARENT_DEPTH, resolver.resolved );
+    }
+
+    public void testProjectUsesTheNearestPrerequisites()
+    {
+        MavenProject grandparent = mockProject( null, "3.3.9" );
+        MavenProject parent = mockProject( grandparent, "2.2.1" );
+        MavenProject child = mockProject( parent, "" );
+
+        assertEquals( "2.2.1", PomPrerequisites.getRequiredMavenVersion( child ) );
+        assertEquals( PomPrerequisites.DEFAULT_MAVEN_VERSION,
+                      PomPrerequisites.getRequiredMavenVersion( mockProject( null, null ) ) );
+    }
+
+    private static final File BASEDIR = new File( "target/test-prerequisites" );
+
+    private static MavenProject mockProject( MavenProject parent, String mavenVersion )
+    {
+        MavenProject project = mock( MavenProject.class );
+        when( project.getParent() ).thenReturn( parent );
+        if ( mavenVersion != null )
+        {
+            Prerequisites prerequisites = new Prerequisites();
+            prerequisites.setMaven( mavenVersion );
+            when( project.getPrerequisites() ).thenReturn( prerequisites );
+        }
+        return project;
+    }
+
+    private static File writePom( String artifactId, String parentArtifactId, String content )
+        throws Exception
+    {
+        StringBuilder pom = new StringBuilder( "<project>\n" );
+        if ( parentArtifactId != null )
+        {
+            pom.append( "  <parent><groupId>org.myorg</groupId><artifactId>" ).append( parentArtifactId );
+            pom.append( "</artifactId><version>1</version></parent>\n" );
+        }
+        pom.append( "  <artifactId>" ).append( artifactId ).append( "</artifactId>\n" );
+        pom.append( "  " ).append( content ).append( "\n</project>\n" );
+        File file = new File( BASEDIR, artifactId + ".xml" );
+        file.getParentFile().mkdirs();
+        FileUtils.fileWrite( file.getPath(), "UTF-8", pom.toString() );
+        return file;
+    }
+
+    private static final class MapParentResolver
+        implements PomPrerequisites.ParentResolver
+    {
+        private final Map<String, File> parents = new HashMap<String, File>();
+
+        private int resolved;
+
+        private void add( String artifactId, String parentArtifactId, String content )
+            throws Exception
+        {
+            parents.put( artifactId, writePom( artifactId, parentArtifactId, content ) );
+        }
+
+        public File resolveParent( String groupId, String artifactId, String version )
+        {
+            assertEquals( "org.myorg", groupId );
+            assertEquals( "1", version );
+            resolved++;
+            return parents.get( artifactId );
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Tests that {@link ReactorIndex} answers as the {@link PomHelper} reactor methods do.
+ */
+public class ReactorIndexTest
+    extends TestCase
+{
+    public void testMatchesPomHelper()
+    {
+        Map<String, Model> reactor = new LinkedHashMap<String, Model>();
+        reactor.put( "", model( "org.myorg", "root", null, null ) );
+        reactor.put( "a", model( "org.myorg", "a", "org.myorg", "root" ) );
+        reactor.put( "b", model( null, "b", "org.myorg", "root" ) );
+        reactor.put( "a/c", model( "org.myorg", "c", "org.myorg", "a" ) );
+        reactor.put( "a/c/d", model( "org.other", "d", "org.myorg", "c" ) );
+        reactor.put( "copy-of-a", model( "org.myorg", "a", "org.myorg", "b" ) );
+        reactor.put( "orphan", model( "org.myorg", "orphan", "org.elsewhere", "parent" ) );
+        ReactorIndex index = new ReactorIndex( reactor );
+
+        for ( Map.Entry<String, Model> entry : reactor.entrySet() )
+        {
+            Model model = entry.getValue();
+            String groupId = PomHelper.getGroupId( model );
+            String artifactId = PomHelper.getArtifactId( model );
+            assertSame( PomHelper.getModelEntry( reactor, groupId, artifactId ).getKey(),
+                        index.getModelEntry( groupId, artifactId ).getKey() );
+            assertSame( PomHelper.getModel( reactor, groupId, artifactId ), index.getModel( groupId, artifactId ) );
+            assertEquals( new ArrayList<String>( PomHelper.getChildModels( reactor, groupId, artifactId ).keySet() ),
+                          new ArrayList<String>( index.getChildModels( groupId, artifactId ).keySet() ) );
+            assertEquals( entry.getKey(), PomHelper.getReactorParentCount( reactor, model ),
+                          index.getReactorParentCount( entry.getKey() ) );
+        }
+        assertNull( index.getModelEntry( "org.elsewhere", "parent" ) );
+        assertTrue( index.getChildModels( "org.other", "d" ).isEmpty() );
+        assertEquals( 3, index.getReactorParentCount( "a/c/d" ) );
+    }
+
+    private static Model model( String groupId, String artifactId, String parentGroupId, String parentArtifactId )
+    {
+        Model model = new Model();
+        model.setGroupId( groupId );
+        model.setArtifactId( artifactId );
+        model.setVersion( "1.0" );
+        if ( parentArtifactId != null )
+        {
+            Parent parent = new Parent();
+            parent.setGroupId( parentGroupId );
+            parent.setArtifactId( parentArtifactId );
+            parent.setVersion( "1.0" );
+            model.setParent( parent );
+        }
+        return model;
+    }
+}
@@ -0,0 +1,127 @@
+package org.codehaus.mojo.versions.api;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.mojo.versions.model.Rule;
+import org.codehaus.mojo.versions.utils.RegexUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test {@link RuleIndex}
+ */
+public class RuleIndexTest
+    extends TestCase
+{
+    private static final String[] GROUP_IDS =
+        { "*", "com", "com.*", "com.foo", "com.foo.bar", "com.f?o", "*.foo", "c*.bar", "org", "org.foo", "com.foo.?ar" };
+
+    private static final String[] ARTIFACT_IDS = { "*", "bar", "bar-*", "ba?", "baz", "bar-plugin", "*-plugin" };
+
+    private static final String[] QUERY_GROUP_IDS =
+        { "com", "com.foo", "com.foo.bar", "com.fao", "org.foo", "org.foo.bar", "net", "com.foo.car", "cx.bar" };
+
+    private static final String[] QUERY_ARTIFACT_IDS = { "bar", "baz", "bar-plugin", "other", "bat" };
+
+    public void testSameWinnerAsLinearScan()
+    {
+        Random random = new Random( 42 );
+        for ( int round = 0; round < 500; round++ )
+        {
+            List<Rule> rules = new ArrayList<Rule>();
+            int count = random.nextInt( 12 );
+            for ( int i = 0; i < count; i++ )
+            {
+                Rule rule = new Rule();
+                rule.setGroupId( GROUP_IDS[random.nextInt( GROUP_IDS.length )] );
+                rule.setArtifactId( ARTIFACT_IDS[random.nextInt( ARTIFACT_IDS.length )] );
+                rules.add( rule );
+            }
+            RuleIndex index = new RuleIndex( rules );
+            for ( String groupId : QUERY_GROUP_IDS )
+            {
+                for ( String artifactId : QUERY_ARTIFACT_IDS )
+                {
+                    assertSame( rules + " for " + groupId + ":" + artifactId,
+                                linearScan( rules, groupId, artifactId ), index.getBestFitRule( groupId, artifactId ) );
+                }
+            }
+        }
+    }
+
+    /**
+     * The selection as it was before rules were indexed.
+     */
+    private static Rule linearScan( List<Rule> rules, String groupId, String artifactId )
+    {
+        Rule bestFit = null;
+        int bestGroupIdScore = Integer.MAX_VALUE;
+        int bestArtifactIdScore = Integer.MAX_VALUE;
+        boolean exactGroupId = false;
+        boolean exactArtifactId = false;
+        for ( Rule rule : rules )
+        {
+            int groupIdScore = RegexUtils.getWildcardScore( rule.getGroupId() );
+            if ( groupIdScore > bestGroupIdScore )
+            {
+                continue;
+            }
+            boolean exactMatch = DefaultVersionsHelper.exactMatch( rule.getGroupId(), groupId );
+            boolean match = exactMatch || DefaultVersionsHelper.match( rule.getGroupId(), groupId );
+            if ( !match || ( exactGroupId && !exactMatch ) )
+            {
+                continue;
+            }
+            if ( bestGroupIdScore > groupIdScore )
+            {
+                bestArtifactIdScore = Integer.MAX_VALUE;
+                exactArtifactId = false;
+            }
+            bestGroupIdScore = groupIdScore;
+            if ( exactMatch && !exactGroupId )
+            {
+                exactGroupId = true;
+                bestArtifactIdScore = Integer.MAX_VALUE;
+                exactArtifactId = false;
+            }
+            int artifactIdScore = RegexUtils.getWildcardScore( rule.getArtifactId() );
+            if ( artifactIdScore > bestArtifactIdScore )
+            {
+                continue;
+            }
+            exactMatch = DefaultVersionsHelper.exactMatch( rule.getArtifactId(), artifactId );
+            match = exactMatch || DefaultVersionsHelper.match( rule.getArtifactId(), artifactId );
+            if ( !match || ( exactArtifactId && !exactMatch ) )
+            {
+                continue;
+            }
+            bestArtifactIdScore = artifactIdScore;
+            if ( exactMatch && !exactArtifactId )
+            {
+                exactArtifactId = true;
+            }
+            bestFit = rule;
+        }
+        return bestFit;
+    }
+}
@@ -49,6 +49,16 @@ public class NumericVersionComparatorTest
         assertTrue( instanceCompare( "1.100000000000000000000000.0", "1.100000000000000000000000.0" ) == 0 );
     }
 
+    public void testLongBoundaries()
+        throws Exception
+    {
+        assertTrue( instanceCompare( "1.999999999999999999", "1.1000000000000000000" ) < 0 );
+        assertTrue( instanceCompare( "1.1000000000000000000", "1.999999999999999999" ) > 0 );
+        assertTrue( instanceCompare( "1.0000000000000000000000001", "1.1" ) == 0 );
+        assertTrue( instanceCompare( "1.007", "1.7" ) == 0 );
+        assertTrue( instanceCompare( "1.0.0000000000000000000000", "1.0" ) < 0 );
+    }
+
     public void testStringValues()
         throws Exception
     {
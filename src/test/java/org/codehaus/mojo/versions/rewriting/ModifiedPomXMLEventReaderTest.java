@@ -0,0 +1,139 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+
+import javax.xml.stream.events.XMLEvent;
+
+/**
+ * Tests {@link ModifiedPomXMLEventReader}.
+ */
+public class ModifiedPomXMLEventReaderTest
+    extends TestCase
+{
+    private static final String POM = "<project>\n  <version>1.0</version>\n</project>\n";
+
+    public void testChangesAreWrittenBackAtTheEndOfThePomAndOnClose()
+        throws Exception
+    {
+        StringBuilder buffer = new StringBuilder( POM );
+        ModifiedPomXMLEventReader pom = new ModifiedPomXMLEventReader( buffer );
+
+        pom.replaceContent( pom.getIndex().getElement( "/project/version" ), "2.0" );
+        pom.rewind();
+        assertEquals( POM, buffer.toString() );
+        assertEquals( POM.replace( "1.0", "2.0" ), pom.asStringBuilder().toString() );
+        while ( pom.hasNext() )
+        {
+            pom.nextEvent();
+        }
+        assertEquals( POM.replace( "1.0", "2.0" ), buffer.toString() );
+
+        pom.rewind();
+        pom.replaceContent( pom.getIndex().getElement( "/project/version" ), "3.0" );
+        pom.rewind();
+        assertEquals( POM.replace( "1.0", "2.0" ), buffer.toString() );
+        pom.flush();
+        assertEquals( POM.replace( "1.0", "3.0" ), buffer.toString() );
+
+        pom.rewind();
+        pom.replaceContent( pom.getIndex().getElement( "/project/version" ), "4.0" );
+        pom.close();
+        assertEquals( POM.replace( "1.0", "4.0" ), buffer.toString() );
+    }
+
+    public void testStreamingAfterChangesAheadOfTheEventsRead()
+        throws Exception
+    {
+        String pom = "<project>\n  <version>1.0</version>\n  <name>a</name>\n  <url>u</url>\n</project>\n";
+        ModifiedPomXMLEventReader reader = new ModifiedPomXMLEventReader( new StringBuilder( pom ) );
+
+        // the index leaves the reader rewound, so the change is ahead of it
+        reader.replaceContent( reader.getIndex().getElement( "/project/version" ), "1.0-SNAPSHOT" );
+        assertEquals( "1.0-SNAPSHOT", nextText( reader, "version" ) );
+        assertEquals( "1.0-SNAPSHOT", reader.getVerbatim() );
+        replaceNextText( reader, "name", "b" );
+
+        // and a change ahead of the events read part of the way through
+        reader.replaceContent( reader.getIndex().getElement( "/project/url" ), "http://example.com" );
+        assertEquals( "http://example.com", nextText( reader, "url" ) );
+        reader.replace( "w" );
+
+        assertEquals( "<project>\n  <version>1.0-SNAPSHOT</version>\n  <name>b</name>\n  <url>w</url>\n</project>\n",
+                      reader.asStringBuilder().toString() );
+    }
+
+    public void testChangesOverlappingEventsReadAheadNeedARewind()
+        throws Exception
+    {
+        ModifiedPomXMLEventReader reader = new ModifiedPomXMLEventReader( new StringBuilder( POM ) );
+        PomIndex.Element version = reader.getIndex().getElement( "/project/version" );
+        nextStartElement( reader, "version" );
+        // reads the text of the version ahead
+        assertTrue( reader.hasNext() );
+
+        reader.replaceContent( version, "2.0" );
+        try
+        {
+            reader.hasNext();
+            fail( "the reader should need a rewind" );
+        }
+        catch ( IllegalStateException e )
+        {
+            // expected
+        }
+
+        reader.rewind();
+        assertEquals( "2.0", nextText( reader, "version" ) );
+    }
+
+    private static void nextStartElement( ModifiedPomXMLEventReader reader, String name )
+        throws Exception
+    {
+        while ( reader.hasNext() )
+        {
+            XMLEvent event = reader.nextEvent();
+            if ( event.isStartElement() && name.equals( event.asStartElement().getName().getLocalPart() ) )
+            {
+                return;
+            }
+        }
+        fail( "no " + name );
+    }
+
+    /**
+     * Reads up to and including the text of the next element with the name.
+     */
+    private static String nextText( ModifiedPomXMLEventReader reader, String name )
+        throws Exception
+    {
+        nextStartElement( reader, name );
+        assertTrue( reader.hasNext() );
+        return reader.nextEvent().asCharacters().getData();
+    }
+
+    private static void replaceNextText( ModifiedPomXMLEventReader reader, String name, String replacement )
+        throws Exception
+    {
+        nextText( reader, name );
+        reader.replace( replacement );
+    }
+}
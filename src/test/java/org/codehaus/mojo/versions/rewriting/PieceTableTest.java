@@ -0,0 +1,77 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.plexus.util.IOUtil;
+
+import java.io.Reader;
+import java.util.Random;
+
+/**
+ * Tests {@link PieceTable}.
+ */
+public class PieceTableTest
+    extends TestCase
+{
+    public void testReplaceMatchesStringBuilder()
+        throws Exception
+    {
+        Random random = new Random( 42 );
+        StringBuilder expected = new StringBuilder( "<project><version>1.0</version></project>" );
+        PieceTable actual = new PieceTable( expected );
+        // enough edits to force the pieces to be compacted a few times
+        for ( int i = 0; i < 5000; i++ )
+        {
+            int start = random.nextInt( expected.length() + 1 );
+            int end = start + random.nextInt( Math.min( 8, expected.length() - start ) + 1 );
+            String replacement = Integer.toString( random.nextInt( 1000 ) ).substring( random.nextInt( 2 ) );
+            expected.replace( start, end, replacement );
+            actual.replace( start, end, replacement );
+
+            assertEquals( expected.length(), actual.length() );
+            int from = random.nextInt( expected.length() + 1 );
+            int to = from + random.nextInt( expected.length() - from + 1 );
+            assertEquals( expected.substring( from, to ), actual.substring( from, to ) );
+            if ( from < expected.length() )
+            {
+                assertEquals( expected.charAt( from ), actual.charAt( from ) );
+            }
+        }
+        assertEquals( expected.toString(), actual.toString() );
+
+        StringBuilder written = new StringBuilder( "stale" );
+        actual.writeTo( written );
+        assertEquals( expected.toString(), written.toString() );
+    }
+
+    public void testReaderIsNotAffectedByLaterReplacements()
+        throws Exception
+    {
+        PieceTable table = new PieceTable( "<version>1.0</version>" );
+        table.replace( 9, 12, "2.0-SNAPSHOT" );
+        Reader reader = table.newReader();
+        table.replace( 0, table.length(), "" );
+
+        assertEquals( "<version>2.0-SNAPSHOT</version>", IOUtil.toString( reader ) );
+        assertEquals( 0, table.length() );
+        assertEquals( "", IOUtil.toString( table.newReader() ) );
+    }
+}
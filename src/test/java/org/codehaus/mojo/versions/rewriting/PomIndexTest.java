@@ -0,0 +1,134 @@
+package org.codehaus.mojo.versions.rewriting;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.codehaus.stax2.XMLInputFactory2;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.events.XMLEvent;
+import java.util.List;
+
+/**
+ * Tests {@link PomIndex}.
+ */
+public class PomIndexTest
+    extends TestCase
+{
+    private static final String POM = "<?xml version='1.0' encoding='utf-8'?>\n" + "<project>\n"
+        + "  <version>1.0<!-- the version --></version>\n" + "  <properties>\n" + "    <foo>1</foo>\n"
+        + "    <foo>2</foo>\n" + "  </properties>\n" + "  <dependencies>\n" + "    <dependency>\n"
+        + "      <artifactId>a</artifactId>\n" + "      <version>${foo}</version>\n" + "    </dependency>\n"
+        + "  </dependencies>\n" + "  <profiles>\n" + "    <profile>\n" + "      <id> dev </id>\n"
+        + "      <properties><foo>3</foo></properties>\n" + "    </profile>\n" + "  </profiles>\n" + "</project>\n";
+
+    public void testElements()
+        throws Exception
+    {
+        ModifiedPomXMLEventReader pom = newPom();
+        PomIndex index = pom.getIndex();
+
+        assertEquals( "1.0", index.getElement( "/project/version" ).getText() );
+        assertEquals( "1.0<!-- the version -->", pom.getContent( index.getElement( "/project/version" ) ) );
+        assertNull( index.getElement( "/project/properties" ).getText() );
+
+        List<PomIndex.Element> dependencies = index.getElements( "/project/dependencies/dependency" );
+        assertEquals( 1, dependencies.size() );
+        assertEquals( "a", dependencies.get( 0 ).getChild( "artifactId" ).getText() );
+        assertTrue( index.getElements( "/project/modules/module" ).isEmpty() );
+
+        List<PomIndex.Element> foo = index.getPropertyDefinitions( null, "foo" );
+        assertEquals( 1, foo.size() );
+        assertEquals( "2", foo.get( 0 ).getText() );
+        assertEquals( "3", index.getPropertyDefinitions( "dev", "foo" ).get( 0 ).getText() );
+        assertTrue( index.getPropertyDefinitions( "test", "foo" ).isEmpty() );
+    }
+
+    public void testReplaceContentShiftsLaterElements()
+        throws Exception
+    {
+        ModifiedPomXMLEventReader pom = newPom();
+        PomIndex index = pom.getIndex();
+        PomIndex.Element version = index.getElement( "/project/version" );
+        PomIndex.Element artifactId = index.getElement( "/project/dependencies/dependency/artifactId" );
+
+        pom.replaceContent( version, "1.0.1-SNAPSHOT" );
+
+        assertSame( index, pom.getIndex() );
+        assertEquals( "1.0.1-SNAPSHOT", version.getText() );
+        assertEquals( "1.0.1-SNAPSHOT", pom.getContent( version ) );
+        assertEquals( "a", pom.getContent( artifactId ) );
+        assertTrue( pom.asStringBuilder().indexOf( "<version>1.0.1-SNAPSHOT</version>" ) > 0 );
+    }
+
+    public void testEditsOutsideLeavesShiftLaterElements()
+        throws Exception
+    {
+        ModifiedPomXMLEventReader pom = newPom();
+        PomIndex index = pom.getIndex();
+        PomIndex.Element dependencies = index.getElement( "/project/dependencies" );
+        PomIndex.Element artifactId = index.getElement( "/project/dependencies/dependency/artifactId" );
+        PomIndex.Element id = index.getElement( "/project/profiles/profile/id" );
+
+        // the whitespace ahead of the dependency
+        while ( pom.hasNext() )
+        {
+            XMLEvent event = pom.nextEvent();
+            if ( event.isStartElement() && "dependencies".equals( event.asStartElement().getName().getLocalPart() ) )
+            {
+                break;
+            }
+        }
+        assertTrue( pom.hasNext() );
+        assertTrue( pom.nextEvent().isCharacters() );
+        pom.replace( "\n\n    " );
+        pom.replaceContent( artifactId, "a&amp;b" );
+
+        assertSame( index, pom.getIndex() );
+        assertEquals( "a&b", artifactId.getText() );
+        assertEquals( "a&amp;b", pom.getContent( artifactId ) );
+        assertEquals( " dev ", id.getText() );
+        assertEquals( " dev ", pom.getContent( id ) );
+        assertTrue( pom.getContent( dependencies ).startsWith( "\n\n    <dependency>" ) );
+        assertEquals( pom.asStringBuilder().indexOf( "<id>" ) + 4, id.getContentStart() );
+    }
+
+    public void testMarkupMakesIndexStale()
+        throws Exception
+    {
+        ModifiedPomXMLEventReader pom = newPom();
+        PomIndex index = pom.getIndex();
+
+        pom.replaceContent( index.getElement( "/project/version" ), "2.0<!-- was 1.0 -->" );
+
+        PomIndex rebuilt = pom.getIndex();
+        assertNotSame( index, rebuilt );
+        assertEquals( "2.0", rebuilt.getElement( "/project/version" ).getText() );
+        assertEquals( "a", pom.getContent( rebuilt.getElement( "/project/dependencies/dependency/artifactId" ) ) );
+    }
+
+    private static ModifiedPomXMLEventReader newPom()
+        throws Exception
+    {
+        XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty( XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE );
+        return new ModifiedPomXMLEventReader( new StringBuilder( POM ), inputFactory );
+    }
+}
@@ -0,0 +1,112 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Tests {@link AtomicFileWriter}.
+ */
+public class AtomicFileWriterTest
+    extends TestCase
+{
+    public void testReplacesFileWithoutLeavingTemporaryFiles()
+        throws Exception
+    {
+        File basedir = new File( "target/test-atomic-file-writer" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        File file = new File( basedir, "sub/file.txt" );
+        Log log = mock( Log.class );
+
+        AtomicFileWriter.write( file, "first".getBytes( "UTF-8" ), log );
+        assertEquals( "first", FileUtils.fileRead( file, "UTF-8" ) );
+        AtomicFileWriter.write( file, "second".getBytes( "UTF-8" ), log );
+        assertEquals( "second", FileUtils.fileRead( file, "UTF-8" ) );
+
+        assertEquals( 1, file.getParentFile().list().length );
+        verify( log, never() ).warn( anyString() );
+    }
+
+    public void testReplacesTargetOfSymbolicLink()
+        throws Exception
+    {
+        File basedir = new File( "target/test-atomic-file-writer-link" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        File target = new File( basedir, "real/pom.xml" );
+        assertTrue( target.getParentFile().mkdirs() );
+        FileUtils.fileWrite( target, "UTF-8", "first" );
+        File link = new File( basedir, "pom.xml" );
+        if ( !createSymbolicLink( link, target ) )
+        {
+            // symbolic links are not supported here
+            return;
+        }
+
+        AtomicFileWriter.write( link, "second".getBytes( "UTF-8" ), mock( Log.class ) );
+
+        assertEquals( "second", FileUtils.fileRead( target, "UTF-8" ) );
+        assertFalse( link.getCanonicalFile().equals( link.getAbsoluteFile() ) );
+        assertEquals( 1, target.getParentFile().list().length );
+    }
+
+    public void testKeepsPermissions()
+        throws Exception
+    {
+        File basedir = new File( "target/test-atomic-file-writer-permissions" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        File file = new File( basedir, "mvnw" );
+        assertTrue( basedir.mkdirs() );
+        FileUtils.fileWrite( file, "UTF-8", "first" );
+        if ( !file.setExecutable( true, false ) || !file.canExecute() )
+        {
+            // permissions are not supported here
+            return;
+        }
+
+        AtomicFileWriter.write( file, "second".getBytes( "UTF-8" ), mock( Log.class ) );
+
+        assertEquals( "second", FileUtils.fileRead( file, "UTF-8" ) );
+        assertTrue( file.canExecute() );
+        assertTrue( file.canRead() );
+        assertTrue( file.canWrite() );
+    }
+
+    private static boolean createSymbolicLink( File link, File target )
+    {
+        try
+        {
+            Process ln = new ProcessBuilder( "ln", "-s", target.getPath(), link.getPath() ).start();
+            return ln.waitFor() == 0 && link.exists();
+        }
+        catch ( Exception e )
+        {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.Log;
+import org.mockito.InOrder;
+
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+public class BufferedLogTest
+    extends TestCase
+{
+    public void testFlushesInOrderAndDropsDisabledLevels()
+    {
+        Log delegate = mock( Log.class );
+        when( delegate.isInfoEnabled() ).thenReturn( true );
+        when( delegate.isErrorEnabled() ).thenReturn( true );
+        BufferedLog log = new BufferedLog( delegate );
+        IllegalStateException error = new IllegalStateException();
+        StringBuilder message = new StringBuilder( "second" );
+
+        log.info( "first" );
+        log.debug( "dropped" );
+        log.error( message, error );
+        message.append( " changed" );
+        log.info( error );
+
+        Log target = mock( Log.class );
+        log.flushTo( target );
+        log.flushTo( target );
+
+        InOrder inOrder = inOrder( target );
+        inOrder.verify( target ).info( "first" );
+        inOrder.verify( target ).error( "second", error );
+        inOrder.verify( target ).info( error );
+        verifyNoMoreInteractions( target );
+    }
+}
@@ -0,0 +1,113 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.execution.MavenSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import static org.mockito.Mockito.mock;
+
+public class LookupExecutorTest
+    extends TestCase
+{
+    public void testSharedPerSession()
+    {
+        MavenSession session = mock( MavenSession.class );
+        LookupExecutor executor = LookupExecutor.getInstance( session, 3 );
+        assertSame( executor, LookupExecutor.getInstance( session, 7 ) );
+        assertEquals( 3, executor.getThreads() );
+        assertNotSame( executor, LookupExecutor.getInstance( mock( MavenSession.class ), 3 ) );
+    }
+
+    public void testNestedLookupsDoNotDeadlock()
+        throws Exception
+    {
+        final LookupExecutor executor = LookupExecutor.getInstance( mock( MavenSession.class ), 1 );
+        List<Callable<Integer>> outer = new ArrayList<Callable<Integer>>();
+        for ( int i = 0; i < 4; i++ )
+        {
+            final int base = i * 10;
+            outer.add( new Callable<Integer>()
+            {
+                public Integer call()
+                    throws Exception
+                {
+                    List<Callable<Integer>> inner = new ArrayList<Callable<Integer>>();
+                    for ( int j = 0; j < 3; j++ )
+                    {
+                        final int value = base + j;
+                        inner.add( new Callable<Integer>()
+                        {
+                            public Integer call()
+                            {
+                                return value;
+                            }
+                        } );
+                    }
+                    int sum = 0;
+                    for ( Integer value : executor.invokeAll( inner ) )
+                    {
+                        sum += value;
+                    }
+                    return sum;
+                }
+            } );
+        }
+        List<Integer> results = executor.invokeAll( outer );
+        assertEquals( 4, results.size() );
+        assertEquals( 3, results.get( 0 ).intValue() );
+        assertEquals( 93, results.get( 3 ).intValue() );
+    }
+
+    public void testFailurePropagates()
+        throws Exception
+    {
+        LookupExecutor executor = LookupExecutor.getInstance( mock( MavenSession.class ), 2 );
+        List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+        tasks.add( new Callable<String>()
+        {
+            public String call()
+            {
+                return "ok";
+            }
+        } );
+        tasks.add( new Callable<String>()
+        {
+            public String call()
+            {
+                throw new IllegalStateException( "boom" );
+            }
+        } );
+        try
+        {
+            executor.invokeAll( tasks );
+            fail( "Expected ExecutionException" );
+        }
+        catch ( ExecutionException e )
+        {
+            assertTrue( e.getCause() instanceof IllegalStateException );
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.codehaus.mojo.versions.utils;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import junit.framework.TestCase;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.FileUtils;
+
+import java.io.File;
+
+/**
+ * Tests {@link PrerequisitesCache}.
+ */
+public class PrerequisitesCacheTest
+    extends TestCase
+{
+    public void testReleasesAreKeptBetweenBuilds()
+        throws Exception
+    {
+        File basedir = new File( "target/test-prerequisites-cache" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+
+        PrerequisitesCache first = PrerequisitesCache.forLocalRepository( basedir.getPath() );
+        PrerequisitesCache second = PrerequisitesCache.forLocalRepository( basedir.getPath() );
+        assertNull( first.get( "org.myorg", "my-plugin", "1.0" ) );
+        first.put( "org.myorg", "my-plugin", "1.0", "2.2.1" );
+        first.put( "org.myorg", "my-plugin", "1.1-SNAPSHOT", "3.0" );
+        assertEquals( "2.2.1", first.get( "org.myorg", "my-plugin", "1.0" ) );
+        assertEquals( "3.0", first.get( "org.myorg", "my-plugin", "1.1-SNAPSHOT" ) );
+        second.put( "org.myorg", "other-plugin", "2.0", "3.0.4" );
+        first.save( new SystemStreamLog() );
+        second.save( new SystemStreamLog() );
+
+        PrerequisitesCache reloaded = PrerequisitesCache.forLocalRepository( basedir.getPath() );
+        assertEquals( "2.2.1", reloaded.get( "org.myorg", "my-plugin", "1.0" ) );
+        assertNull( reloaded.get( "org.myorg", "my-plugin", "1.1-SNAPSHOT" ) );
+        assertEquals( "3.0.4", reloaded.get( "org.myorg", "other-plugin", "2.0" ) );
+        assertEquals( 1, new File( basedir, PrerequisitesCache.LOCAL_REPOSITORY_PATH ).getParentFile().list().length );
+    }
+
+    public void testCorruptedFileIsTreatedAsEmpty()
+        throws Exception
+    {
+        File basedir = new File( "target/test-prerequisites-cache-corrupted" ).getAbsoluteFile();
+        FileUtils.deleteDirectory( basedir );
+        File file = new File( basedir, PrerequisitesCache.LOCAL_REPOSITORY_PATH );
+        assertTrue( file.getParentFile().mkdirs() );
+        FileUtils.fileWrite( file, "ISO-8859-1", "org.myorg\\:my-plugin\\:1.0=2.2.1\nbroken=\\u00zz\n" );
+
+        PrerequisitesCache cache = PrerequisitesCache.forLocalRepository( basedir.getPath() );
+        assertNull( cache.get( "org.myorg", "my-plugin", "1.0" ) );
+        cache.put( "org.myorg", "my-plugin", "1.1", "3.0" );
+        cache.save( new SystemStreamLog() );
+
+        PrerequisitesCache reloaded = PrerequisitesCache.forLocalRepository( basedir.getPath() );
+        assertEquals( "3.0", reloaded.get( "org.myorg", "my-plugin", "1.1" ) );
+    }
+}